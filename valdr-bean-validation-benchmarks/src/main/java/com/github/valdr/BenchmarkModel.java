@@ -0,0 +1,145 @@
+package com.github.valdr;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.reflections.ReflectionUtils;
+import com.github.valdr.decorator.DecoratorFactories;
+import com.github.valdr.model.validation.CustomValidation;
+import com.github.valdr.util.GeneratedModel;
+import com.github.valdr.util.ModelGenerator;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Model shared by all benchmarks. The model consists of {@code classCount} entities generated by the {@link
+ * ModelGenerator}. The inputs of the individual parser stages are prepared up front by running the previous stages such
+ * that each stage benchmark only measures its own stage.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkModel {
+  @Param({"10", "1000", "50000"})
+  private int classCount;
+
+  @Param({"10"})
+  private int fieldsPerClass;
+
+  @Param({"0.5"})
+  private double constraintDensity;
+
+  private GeneratedModel model;
+  private RelevantAnnotations relevantAnnotations;
+  private List<Class<?>> classes;
+  private List<Field> fields;
+  private List<Map.Entry<Annotation, Class<?>>> constraints;
+  private List<Map.Entry<BuiltInConstraint, ConstraintAttributes>> builtInConstraints;
+  private Map<String, ClassConstraints> classConstraints;
+
+  /**
+   * Generates the model and prepares the inputs of all stages.
+   *
+   * @throws IOException                  if the model cannot be generated
+   * @throws ReflectiveOperationException if extracting the constraints fails
+   */
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() throws IOException, ReflectiveOperationException {
+    model = new ModelGenerator("com.github.valdr.benchmark.model").withClassCount(classCount).withFieldsPerClass(
+      fieldsPerClass).withConstraintDensity(constraintDensity).generate().activate();
+    relevantAnnotations = new RelevantAnnotations(Lists.<Class<? extends Annotation>>newArrayList(
+      CustomValidation.class), new DecoratorFactories(model.getClassLoader()));
+
+    classes = Lists.newArrayList();
+    fields = Lists.newArrayList();
+    constraints = Lists.newArrayList();
+    builtInConstraints = Lists.newArrayList();
+    classConstraints = new TreeMap<>();
+    for (String className : model.getEntityClassNames()) {
+      Class<?> clazz = Class.forName(className, true, model.getClassLoader());
+      classes.add(clazz);
+      classConstraints.put(clazz.getSimpleName(), new AnnotatedClass(clazz, Collections.<String>emptyList(),
+        relevantAnnotations).extractValidationRules());
+      for (Field field : ReflectionUtils.getAllFields(clazz)) {
+        addConstraints(field);
+      }
+    }
+  }
+
+  /**
+   * Removes the generated model.
+   *
+   * @throws IOException if the class files cannot be deleted
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    model.close();
+  }
+
+  private void addConstraints(final Field field) {
+    boolean constrained = false;
+    for (Annotation annotation : field.getAnnotations()) {
+      if (relevantAnnotations.get(annotation.annotationType()) != null) {
+        constrained = true;
+        constraints.add(Maps.<Annotation, Class<?>>immutableEntry(annotation, field.getType()));
+        BuiltInConstraint builtInConstraint = BuiltInConstraint.valueOfAnnotationClassOrNull(annotation
+          .annotationType());
+        if (builtInConstraint != null) {
+          builtInConstraints.add(Maps.immutableEntry(builtInConstraint, new ConstraintAttributes(annotation,
+            field.getType())));
+        }
+      }
+    }
+    if (constrained) {
+      fields.add(field);
+    }
+  }
+
+  private static Options createOptions(final GeneratedModel model) {
+    Options options = new Options();
+    options.setModelPackages(Lists.newArrayList(model.getPackageName()));
+    options.setCustomAnnotationClasses(ModelGenerator.getCustomAnnotationClassNames());
+    options.setUseConstraintIndex(false);
+    options.setUsePrecompiledRules(false);
+    return options;
+  }
+
+  /**
+   * @return configuration which makes the parser process the generated model, changes don't affect other benchmarks
+   */
+  Options getOptions() {
+    return createOptions(model);
+  }
+
+  RelevantAnnotations getRelevantAnnotations() {
+    return relevantAnnotations;
+  }
+
+  List<Class<?>> getClasses() {
+    return classes;
+  }
+
+  List<Field> getFields() {
+    return fields;
+  }
+
+  List<Map.Entry<Annotation, Class<?>>> getConstraints() {
+    return constraints;
+  }
+
+  List<Map.Entry<BuiltInConstraint, ConstraintAttributes>> getBuiltInConstraints() {
+    return builtInConstraints;
+  }
+
+  Map<String, ClassConstraints> getClassConstraints() {
+    return classConstraints;
+  }
+}
@@ -0,0 +1,118 @@
+package com.github.valdr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reflections.util.FilterBuilder;
+import com.google.common.base.Predicate;
+
+/**
+ * Micro-benchmarks of the filter applied to every resource on the scanned classpath URLs, the regular expression based
+ * {@link FilterBuilder} the scanner used before vs. the compiled {@link ClassNameFilter}. Reports the time to filter
+ * one resource name, averaged over a mix of selected, excluded and foreign names.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmarks {
+  private static final int RESOURCE_NAME_COUNT = 1024;
+
+  /**
+   * Model packages, excluded classes and the resource names to filter.
+   */
+  @State(Scope.Benchmark)
+  public static class FilterState {
+    @Param({"1", "20"})
+    private int packageCount;
+
+    @Param({"0", "200"})
+    private int exclusionCount;
+
+    private Predicate<String> filterBuilder;
+    private Predicate<String> classNameFilter;
+    private String[] resourceNames;
+    private int next;
+
+    /**
+     * Builds both filters from the same configuration and the resource names to filter.
+     */
+    @Setup
+    public void setUp() {
+      List<String> packageNames = new ArrayList<>();
+      for (int i = 0; i < packageCount; i++) {
+        packageNames.add("com.company.module" + i + ".model");
+      }
+      List<String> excludedClassNames = new ArrayList<>();
+      for (int i = 0; i < exclusionCount; i++) {
+        excludedClassNames.add(packageNames.get(i % packageCount) + ".Excluded" + i);
+      }
+
+      FilterBuilder builder = new FilterBuilder();
+      for (String packageName : packageNames) {
+        builder.include(FilterBuilder.prefix(packageName));
+      }
+      for (String excludedClassName : excludedClassNames) {
+        builder.exclude("^" + StringUtils.replace(excludedClassName, ".", "\\.") + "\\.class$");
+      }
+      filterBuilder = builder;
+      classNameFilter = new ClassNameFilter(packageNames, excludedClassNames);
+
+      resourceNames = new String[RESOURCE_NAME_COUNT];
+      for (int i = 0; i < RESOURCE_NAME_COUNT; i++) {
+        String packageName = packageNames.get(i % packageCount);
+        switch (i % 4) {
+          case 0:
+            resourceNames[i] = exclusionCount == 0 ? packageName + ".Entity" + i + ".class" : excludedClassNames.get(
+              i % exclusionCount) + ".class";
+            break;
+          case 1:
+            resourceNames[i] = "org.hibernate.internal.SessionImpl" + i + ".class";
+            break;
+          default:
+            resourceNames[i] = packageName + ".Entity" + i + ".class";
+        }
+      }
+    }
+
+    private String nextResourceName() {
+      next = (next + 1) & (RESOURCE_NAME_COUNT - 1);
+      return resourceNames[next];
+    }
+  }
+
+  /**
+   * Filters a resource name with the regular expression based filter.
+   *
+   * @param state filters and resource names
+   * @return whether the resource is selected
+   */
+  @Benchmark
+  public boolean filterBuilder(final FilterState state) {
+    return state.filterBuilder.apply(state.nextResourceName());
+  }
+
+  /**
+   * Filters a resource name with the compiled filter.
+   *
+   * @param state filters and resource names
+   * @return whether the resource is selected
+   */
+  @Benchmark
+  public boolean classNameFilter(final FilterState state) {
+    return state.classNameFilter.apply(state.nextResourceName());
+  }
+}
@@ -0,0 +1,179 @@
+package com.github.valdr;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Benchmarks of the complete pipeline: scanning the classpath, parsing the model classes to a JSON document and
+ * serving that document through the Servlet. All benchmarks process the {@link BenchmarkModel}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmarks {
+
+  /**
+   * Parser configuration.
+   */
+  @State(Scope.Benchmark)
+  public static class ParserState {
+    @Param({"1", "4"})
+    private int parserParallelism;
+
+    @Param({"false", "true"})
+    private boolean sharedConstraintCache;
+
+    @Param({"false", "true"})
+    private boolean incrementalParsing;
+
+    private ConstraintParser parser;
+
+    /**
+     * Creates the configuration and the parser, which is reused by all invocations like in the Servlet. In incremental
+     * mode every invocation after the first is a re-parse of an unchanged model.
+     *
+     * @param model model to parse
+     */
+    @Setup
+    public void setUp(final BenchmarkModel model) {
+      Options options = model.getOptions();
+      options.setParserParallelism(parserParallelism);
+      options.setSharedConstraintCache(sharedConstraintCache);
+      options.setIncrementalParsing(incrementalParsing);
+      parser = new ConstraintParser(options);
+    }
+
+    /**
+     * Releases the threads of the parser.
+     */
+    @TearDown
+    public void tearDown() {
+      parser.shutdown();
+    }
+  }
+
+  /**
+   * Initialized Servlet and the request sent to it.
+   */
+  @State(Scope.Benchmark)
+  public static class ServletState {
+    @Param({"identity", "gzip"})
+    private String acceptEncoding;
+
+    @Param({"false", "true"})
+    private boolean conditional;
+
+    private final ValidationRulesServlet servlet = new ValidationRulesServlet();
+    private File configFile;
+    private String etag;
+
+    /**
+     * Initializes the Servlet (which parses the model classes) and determines the current entity tag.
+     *
+     * @param model model to serve
+     * @throws IOException      if the configuration cannot be written
+     * @throws ServletException if the Servlet cannot be initialized
+     */
+    @Setup
+    public void setUp(final BenchmarkModel model) throws IOException, ServletException {
+      configFile = File.createTempFile("valdr-bean-validation", ".json");
+      new ObjectMapper().writeValue(configFile, model.getOptions());
+      MockServletConfig servletConfig = new MockServletConfig();
+      servletConfig.addInitParameter("configFile", configFile.getAbsolutePath());
+      servlet.init(servletConfig);
+      etag = send(null).getHeader("ETag");
+    }
+
+    /**
+     * Releases the Servlet.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      servlet.destroy();
+      configFile.delete();
+    }
+
+    MockHttpServletResponse send(final String ifNoneMatch) throws IOException, ServletException {
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", "/validationRules");
+      request.addHeader("Accept-Encoding", acceptEncoding);
+      if (ifNoneMatch != null) {
+        request.addHeader("If-None-Match", ifNoneMatch);
+      }
+      MockHttpServletResponse response = new MockHttpServletResponse();
+      servlet.service(request, response);
+      return response;
+    }
+  }
+
+  /**
+   * Finds the classes to parse.
+   *
+   * @param model model to scan for
+   * @return classes to parse
+   */
+  @Benchmark
+  public Set<Class<?>> scanClasspath(final BenchmarkModel model) {
+    return new ClasspathScanner(model.getOptions()).findClassesToParse();
+  }
+
+  /**
+   * Scans the classpath, parses all model classes and serializes their constraints.
+   *
+   * @param state parser configuration
+   * @return JSON document
+   * @throws ReflectiveOperationException never
+   * @throws IOException never
+   */
+  @Benchmark
+  public String parse(final ParserState state) throws ReflectiveOperationException, IOException {
+    return state.parser.parse();
+  }
+
+  /**
+   * Like {@link #parse(ParserState)} but streams the JSON document to a sink.
+   *
+   * @param state parser configuration
+   * @throws ReflectiveOperationException never
+   * @throws IOException never
+   */
+  @Benchmark
+  public void parseToStream(final ParserState state) throws ReflectiveOperationException, IOException {
+    state.parser.parse(ByteStreams.nullOutputStream());
+  }
+
+  /**
+   * Sends a request to the Servlet, conditional requests carry the current entity tag.
+   *
+   * @param state initialized Servlet
+   * @return response
+   * @throws IOException      never
+   * @throws ServletException never
+   */
+  @Benchmark
+  public MockHttpServletResponse serveRules(final ServletState state) throws IOException, ServletException {
+    return state.send(state.conditional ? state.etag : null);
+  }
+}
@@ -0,0 +1,155 @@
+package com.github.valdr;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import com.github.valdr.util.GeneratedModel;
+import com.github.valdr.util.ModelGenerator;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+/**
+ * Benchmarks of the classpath scan over many jars, as in a web application whose model is spread across libraries.
+ * The classes of a generated model are packed into {@code jarCount} jars which are scanned sequentially or
+ * concurrently, with Reflections or by reading the class files directly. Reports the wall-clock time of a scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanBenchmarks {
+
+  /**
+   * Model packed into jars and the scanner configuration.
+   */
+  @State(Scope.Benchmark)
+  public static class JarsState {
+    @Param({"1000", "10000"})
+    private int classCount;
+
+    @Param({"1", "64"})
+    private int jarCount;
+
+    @Param({"1", "4"})
+    private int scannerParallelism;
+
+    @Param({"false", "true"})
+    private boolean scanClassFiles;
+
+    private GeneratedModel model;
+    private File jarDirectory;
+    private URLClassLoader classLoader;
+    private ClassLoader originalContextClassLoader;
+    private Options options;
+
+    /**
+     * Generates the model, packs it into jars and makes a class loader over the jars the context class loader.
+     *
+     * @throws IOException if the model cannot be generated or packed
+     */
+    @Setup
+    public void setUp() throws IOException {
+      model = new ModelGenerator("com.github.valdr.benchmark.scan").withClassCount(classCount).generate();
+      jarDirectory = Files.createTempDir();
+      List<URL> jars = packIntoJars(model.getDirectory(), jarDirectory, jarCount);
+      classLoader = new URLClassLoader(jars.toArray(new URL[jars.size()]), ScanBenchmarks.class.getClassLoader());
+      originalContextClassLoader = Thread.currentThread().getContextClassLoader();
+      Thread.currentThread().setContextClassLoader(classLoader);
+
+      options = new Options();
+      options.setModelPackages(Lists.newArrayList(model.getPackageName()));
+      options.setUseConstraintIndex(false);
+      options.setScannerParallelism(scannerParallelism);
+      options.setScanClassFiles(scanClassFiles);
+    }
+
+    /**
+     * Restores the context class loader and deletes model and jars.
+     *
+     * @throws IOException if the files cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+      Thread.currentThread().setContextClassLoader(originalContextClassLoader);
+      classLoader.close();
+      FileUtils.deleteDirectory(jarDirectory);
+      model.close();
+    }
+
+    /**
+     * Distributes the class files round-robin over the jars. Each jar contains the directory entries of its packages
+     * such that the class loader finds the packages in every jar.
+     */
+    private static List<URL> packIntoJars(final File classDirectory, final File jarDirectory, final int jarCount)
+      throws IOException {
+      List<JarOutputStream> outputStreams = new ArrayList<>();
+      List<Set<String>> directories = new ArrayList<>();
+      List<URL> jars = new ArrayList<>();
+      try {
+        for (int i = 0; i < jarCount; i++) {
+          File jar = new File(jarDirectory, "model" + i + ".jar");
+          outputStreams.add(new JarOutputStream(new FileOutputStream(jar)));
+          directories.add(new HashSet<String>());
+          jars.add(jar.toURI().toURL());
+        }
+        Collection<File> classFiles = FileUtils.listFiles(classDirectory, new String[] {"class"}, true);
+        int i = 0;
+        for (File classFile : classFiles) {
+          String name = classDirectory.toURI().relativize(classFile.toURI()).getPath();
+          JarOutputStream outputStream = outputStreams.get(i % jarCount);
+          for (int slash = name.indexOf('/'); slash >= 0; slash = name.indexOf('/', slash + 1)) {
+            String directory = name.substring(0, slash + 1);
+            if (directories.get(i % jarCount).add(directory)) {
+              outputStream.putNextEntry(new JarEntry(directory));
+              outputStream.closeEntry();
+            }
+          }
+          outputStream.putNextEntry(new JarEntry(name));
+          Files.copy(classFile, outputStream);
+          outputStream.closeEntry();
+          i++;
+        }
+      } finally {
+        for (JarOutputStream outputStream : outputStreams) {
+          outputStream.close();
+        }
+      }
+      return jars;
+    }
+  }
+
+  /**
+   * Finds the model classes in the jars.
+   *
+   * @param state jars and scanner configuration
+   * @return classes to parse
+   */
+  @Benchmark
+  public Set<Class<?>> scanJars(final JarsState state) {
+    return new ClasspathScanner(state.options).findClassesToParse();
+  }
+}
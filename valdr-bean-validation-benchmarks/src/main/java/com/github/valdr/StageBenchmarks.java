@@ -0,0 +1,149 @@
+package com.github.valdr;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.valdr.serializer.SerializationContext;
+
+/**
+ * Benchmarks of the individual stages of the parser, each one processing all classes of the {@link BenchmarkModel}
+ * per invocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StageBenchmarks {
+
+  /**
+   * Constraints of all classes extracted in a previous incremental parser run.
+   */
+  @State(Scope.Benchmark)
+  public static class IncrementalState {
+    private ExtractedConstraintsCache cache;
+
+    /**
+     * Runs the first incremental run, which extracts the constraints of all classes.
+     *
+     * @param model model to process
+     * @throws ReflectiveOperationException never
+     */
+    @Setup
+    public void setUp(final BenchmarkModel model) throws ReflectiveOperationException {
+      cache = new ExtractedConstraintsCache(model.getRelevantAnnotations().getClasses());
+      cache.startRun();
+      for (Class<?> clazz : model.getClasses()) {
+        cache.use(clazz.getName());
+        cache.put(clazz.getName(), cache.hash(clazz), new AnnotatedClass(clazz, Collections.<String>emptyList(),
+          model.getRelevantAnnotations()).extractValidationRules());
+      }
+      cache.finishRun();
+    }
+  }
+
+  /**
+   * Extracts the constraints of all fields of all classes.
+   *
+   * @param model model to process
+   * @param blackhole sink for the results
+   * @throws ReflectiveOperationException never
+   */
+  @Benchmark
+  public void extractClassConstraints(final BenchmarkModel model, final Blackhole blackhole) throws
+    ReflectiveOperationException {
+    for (Class<?> clazz : model.getClasses()) {
+      blackhole.consume(new AnnotatedClass(clazz, Collections.<String>emptyList(),
+        model.getRelevantAnnotations()).extractValidationRules());
+    }
+  }
+
+  /**
+   * Looks up the constraints of all classes in an incremental parser run in which no class changed, to be compared
+   * with {@link #extractClassConstraints(BenchmarkModel, Blackhole)}. Each class is still read and hashed.
+   *
+   * @param model model to process
+   * @param state constraints of the previous run
+   * @param blackhole sink for the results
+   */
+  @Benchmark
+  public void reuseUnchangedClassConstraints(final BenchmarkModel model, final IncrementalState state,
+    final Blackhole blackhole) {
+    state.cache.startRun();
+    for (Class<?> clazz : model.getClasses()) {
+      state.cache.use(clazz.getName());
+      blackhole.consume(state.cache.get(clazz.getName(), state.cache.hash(clazz)));
+    }
+    state.cache.finishRun();
+  }
+
+  /**
+   * Extracts the constraints of all constrained fields.
+   *
+   * @param model model to process
+   * @param blackhole sink for the results
+   * @throws ReflectiveOperationException never
+   */
+  @Benchmark
+  public void extractFieldConstraints(final BenchmarkModel model, final Blackhole blackhole) throws
+    ReflectiveOperationException {
+    for (Field field : model.getFields()) {
+      blackhole.consume(new AnnotatedField(field, model.getRelevantAnnotations()).extractValidationRules());
+    }
+  }
+
+  /**
+   * Extracts (and localizes) the attributes of all constraint annotations.
+   *
+   * @param model model to process
+   * @param blackhole sink for the results
+   */
+  @Benchmark
+  public void extractConstraintAttributes(final BenchmarkModel model, final Blackhole blackhole) {
+    for (Map.Entry<Annotation, Class<?>> constraint : model.getConstraints()) {
+      blackhole.consume(new ConstraintAttributes(constraint.getKey(), constraint.getValue()));
+    }
+  }
+
+  /**
+   * Wraps the attributes of all built-in constraints in their decorator and reads the decorated attributes, which is
+   * what the serializer does.
+   *
+   * @param model model to process
+   * @param blackhole sink for the results
+   * @throws ReflectiveOperationException never
+   */
+  @Benchmark
+  public void wrapInDecorators(final BenchmarkModel model, final Blackhole blackhole) throws
+    ReflectiveOperationException {
+    for (Map.Entry<BuiltInConstraint, ConstraintAttributes> constraint : model.getBuiltInConstraints()) {
+      blackhole.consume(constraint.getKey().createDecoratorFor(constraint.getValue()).entrySet());
+    }
+  }
+
+  /**
+   * Serializes the constraints of all classes to JSON.
+   *
+   * @param model model to process
+   * @return JSON document
+   * @throws JsonProcessingException never
+   */
+  @Benchmark
+  public String serializeToJson(final BenchmarkModel model) throws JsonProcessingException {
+    return SerializationContext.pretty().toJson(model.getClassConstraints());
+  }
+}
@@ -0,0 +1,40 @@
+package com.github.valdr;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks. Accepts the same arguments as the JMH main class, e.g. a regexp to select benchmarks or
+ * {@code -p classCount=100}. Unless other profilers are requested the GC profiler is enabled such that allocation
+ * rates are reported next to the throughput:
+ * <pre>
+ * java -jar target/benchmarks.jar [JMH options]
+ * </pre>
+ */
+public final class ValdrBenchmarks {
+
+  private ValdrBenchmarks() {
+    // utility class
+  }
+
+  /**
+   * See class comment.
+   *
+   * @param args JMH command line arguments
+   * @throws CommandLineOptionException if the arguments are invalid
+   * @throws RunnerException            if a benchmark fails
+   */
+  public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+    CommandLineOptions cliOptions = new CommandLineOptions(args);
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(cliOptions);
+    if (cliOptions.getProfilers().isEmpty()) {
+      options.addProfiler(GCProfiler.class);
+    }
+    new Runner(options.build()).run();
+  }
+}
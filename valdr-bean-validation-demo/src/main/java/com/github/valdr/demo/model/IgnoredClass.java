@@ -1,7 +1,9 @@
 package com.github.valdr.demo.model;
 
+import javax.persistence.Entity;
 import javax.validation.constraints.NotNull;
 
+@Entity
 public class IgnoredClass {
   @NotNull
   private String name;
@@ -3,10 +3,12 @@ package com.github.valdr.demo.model;
 import org.hibernate.validator.constraints.CreditCardNumber;
 import org.hibernate.validator.constraints.URL;
 
+import javax.persistence.Entity;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
+@Entity
 public class Person {
   @NotNull(message = "\\foo")
   private String firstName;
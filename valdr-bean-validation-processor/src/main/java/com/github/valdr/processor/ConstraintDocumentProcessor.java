@@ -0,0 +1,268 @@
+package com.github.valdr.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import org.apache.commons.lang3.StringUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.valdr.BuiltInConstraint;
+import com.github.valdr.ClassConstraints;
+import com.github.valdr.ConstraintAttributes;
+import com.github.valdr.ConstraintParser;
+import com.github.valdr.FieldConstraints;
+import com.github.valdr.Options;
+import com.github.valdr.decorator.DecoratorFactories;
+import com.github.valdr.serializer.SerializationContext;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Annotation processor which generates the complete validation rules document at compile time, i.e. the very JSON
+ * {@link ConstraintParser#parse()} would produce at runtime. The document is written to
+ * {@link ConstraintParser#PRECOMPILED_RULES_RESOURCE} from where the parser (and hence both Servlet and CLI) picks it
+ * up instead of parsing the model classes.
+ * <p>
+ * The processor is only active if the processor option {@value #CONFIG_OPTION} points to a valdr configuration file
+ * (see {@link Options}), e.g. {@code -Avaldr.config=src/main/resources/valdr-bean-validation.json}. Only the model
+ * classes compiled in the same {@code javac} run are considered, model classes from dependencies are not.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ConstraintDocumentProcessor.CONFIG_OPTION)
+public class ConstraintDocumentProcessor extends AbstractProcessor {
+  /**
+   * Processor option whose value is the path to the valdr configuration file.
+   */
+  public static final String CONFIG_OPTION = "valdr.config";
+
+  // output name and constraints by binary class name, sorted the same way the runtime parser sorts the classes
+  private final SortedMap<String, Map.Entry<String, ClassConstraints>> classConstraintsByClassName = new TreeMap<>();
+  private Options options;
+  private Set<String> relevantAnnotationClassNames;
+  private DecoratorFactories decoratorFactories;
+  private ModelElements modelElements;
+
+  @Override
+  public synchronized void init(final ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    modelElements = new ModelElements(processingEnv.getTypeUtils());
+    String configFile = processingEnv.getOptions().get(CONFIG_OPTION);
+    if (StringUtils.isNotEmpty(configFile)) {
+      options = loadOptions(configFile);
+    }
+    if (options != null) {
+      relevantAnnotationClassNames = Sets.newHashSet(options.getCustomAnnotationClasses());
+      for (BuiltInConstraint constraint : BuiltInConstraint.values()) {
+        relevantAnnotationClassNames.add(constraint.getBeanValidationAnnotation().getName());
+      }
+      // decorator factories must be on the processor path
+      decoratorFactories = new DecoratorFactories(ConstraintDocumentProcessor.class.getClassLoader());
+    }
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+    if (options == null) {
+      return false;
+    }
+    if (roundEnv.processingOver()) {
+      if (!classConstraintsByClassName.isEmpty()) {
+        writeDocument();
+      }
+    } else {
+      for (Element element : roundEnv.getRootElements()) {
+        collect(element);
+      }
+    }
+    // never claim any annotation, other processors may be interested as well
+    return false;
+  }
+
+  private Options loadOptions(final String configFile) {
+    try {
+      Options result = SerializationContext.getObjectMapper().readValue(new File(configFile), Options.class);
+      result.validate();
+      return result;
+    } catch (IOException | RuntimeException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot read valdr configuration file '" +
+        configFile + "': " + e.getMessage());
+      return null;
+    }
+  }
+
+  private void collect(final Element element) {
+    if (element.getKind() == ElementKind.CLASS) {
+      TypeElement type = (TypeElement) element;
+      String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+      if (isModelClass(className) && modelElements.isEntity(type.asType())) {
+        ClassConstraints classConstraints = extractValidationRules(type);
+        if (classConstraints.size() > 0) {
+          String outputName = options.getOutputFullTypeName() ? className : type.getSimpleName().toString();
+          classConstraintsByClassName.put(className, Maps.immutableEntry(outputName, classConstraints));
+        }
+      }
+    }
+    for (Element enclosed : element.getEnclosedElements()) {
+      if (enclosed.getKind().isClass() || enclosed.getKind().isInterface()) {
+        collect(enclosed);
+      }
+    }
+  }
+
+  private boolean isModelClass(final String className) {
+    if (options.getExcludedClasses().contains(className)) {
+      return false;
+    }
+    for (String packageName : options.getModelPackages()) {
+      // same prefix semantics as the filter of the classpath scanner
+      if (StringUtils.isNotEmpty(packageName) && className.startsWith(packageName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private ClassConstraints extractValidationRules(final TypeElement type) {
+    Elements elements = processingEnv.getElementUtils();
+    ClassConstraints classConstraints = new ClassConstraints();
+    // a constrained field of a sub class hides an equally named field of its super class
+    Set<String> fieldNames = Sets.newHashSet();
+    TypeElement current = type;
+    while (current != null) {
+      String declaringClassName = elements.getBinaryName(current).toString();
+      for (Element enclosed : current.getEnclosedElements()) {
+        String fieldName = enclosed.getSimpleName().toString();
+        if (enclosed.getKind() == ElementKind.FIELD && !options.getExcludedFields().contains(declaringClassName + "#" +
+          fieldName) && !fieldNames.contains(fieldName)) {
+          FieldConstraints fieldConstraints = extractValidationRules((VariableElement) enclosed);
+          if (fieldConstraints.size() > 0) {
+            fieldNames.add(fieldName);
+            classConstraints.put(fieldName, fieldConstraints);
+          }
+        }
+      }
+      current = modelElements.getSuperclass(current);
+    }
+    return classConstraints;
+  }
+
+  private FieldConstraints extractValidationRules(final VariableElement field) {
+    FieldConstraints fieldConstraints = new FieldConstraints();
+    for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+      String annotationClassName = modelElements.getAnnotationClassName(annotation);
+      if (relevantAnnotationClassNames.contains(annotationClassName) && isRetainedAtRuntime(annotation)) {
+        ConstraintAttributes attributes = new ConstraintAttributes(annotationClassName, getAttributes(annotation),
+          isString(field.asType()), isCollection(field.asType()));
+        fieldConstraints.putConstraint(annotationClassName, attributes, decoratorFactories);
+      }
+    }
+    return fieldConstraints;
+  }
+
+  private boolean isRetainedAtRuntime(final AnnotationMirror annotation) {
+    Retention retention = annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+    return retention != null && retention.value() == RetentionPolicy.RUNTIME;
+  }
+
+  private boolean isString(final TypeMirror type) {
+    TypeElement string = processingEnv.getElementUtils().getTypeElement(String.class.getName());
+    return processingEnv.getTypeUtils().isSameType(type, string.asType());
+  }
+
+  private boolean isCollection(final TypeMirror type) {
+    if (type.getKind() != TypeKind.DECLARED) {
+      return false;
+    }
+    Types types = processingEnv.getTypeUtils();
+    TypeElement collection = processingEnv.getElementUtils().getTypeElement(Collection.class.getName());
+    return types.isAssignable(types.erasure(type), types.erasure(collection.asType()));
+  }
+
+  private Map<String, Object> getAttributes(final AnnotationMirror annotation) {
+    Map<String, Object> attributes = Maps.newHashMap();
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils()
+      .getElementValuesWithDefaults(annotation).entrySet()) {
+      attributes.put(entry.getKey().getSimpleName().toString(), toAttributeValue(entry.getValue().getValue()));
+    }
+    return attributes;
+  }
+
+  /**
+   * Converts an annotation value to what Jackson writes for the corresponding reflective value: enum constants by
+   * name, classes by binary name and arrays as lists.
+   */
+  private Object toAttributeValue(final Object value) {
+    if (value instanceof List) {
+      List<Object> result = Lists.newArrayList();
+      for (Object element : (List<?>) value) {
+        result.add(toAttributeValue(((AnnotationValue) element).getValue()));
+      }
+      return result;
+    } else if (value instanceof VariableElement) {
+      return ((VariableElement) value).getSimpleName().toString();
+    } else if (value instanceof TypeMirror) {
+      Element element = processingEnv.getTypeUtils().asElement((TypeMirror) value);
+      return element instanceof TypeElement ? processingEnv.getElementUtils().getBinaryName((TypeElement) element)
+        .toString() : value.toString();
+    } else if (value instanceof AnnotationMirror) {
+      return getAttributes((AnnotationMirror) value);
+    }
+    return value;
+  }
+
+  private void writeDocument() {
+    Map<String, ClassConstraints> classNameToValidationRulesMap = new TreeMap<>();
+    for (Map.Entry<String, ClassConstraints> entry : classConstraintsByClassName.values()) {
+      classNameToValidationRulesMap.put(entry.getKey(), entry.getValue());
+    }
+    try {
+      FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+        ConstraintParser.PRECOMPILED_RULES_RESOURCE);
+      try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), Charsets.UTF_8)) {
+        writer.write(SerializationContext.forOptions(options).toJson(classNameToValidationRulesMap));
+      }
+    } catch (JsonProcessingException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot serialize valdr validation rules: " + e
+        .getMessage());
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write valdr validation rules: " + e
+        .getMessage());
+    }
+  }
+}
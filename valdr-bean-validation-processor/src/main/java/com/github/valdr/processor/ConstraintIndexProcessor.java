@@ -0,0 +1,84 @@
+package com.github.valdr.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import com.github.valdr.ConstraintIndex;
+
+/**
+ * Annotation processor which records all model classes in a {@link ConstraintIndex} at compile time. At runtime the
+ * {@link com.github.valdr.ClasspathScanner} then reads the index instead of scanning the jar or directory containing
+ * it, if enabled (see {@link com.github.valdr.Options#getUseConstraintIndex()}).
+ * <p>
+ * Just like the classpath scanner by default it considers every class annotated with {@code javax.persistence.Entity}
+ * as well as all their sub classes. Note that the index only covers classes compiled in the same {@code javac} run;
+ * incremental compilation of a subset of the model classes produces an incomplete index.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+public class ConstraintIndexProcessor extends AbstractProcessor {
+  private final ConstraintIndex index = new ConstraintIndex();
+  private ModelElements modelElements;
+
+  @Override
+  public synchronized void init(final ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    modelElements = new ModelElements(processingEnv.getTypeUtils());
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      if (!index.isEmpty()) {
+        writeIndex();
+      }
+    } else {
+      for (Element element : roundEnv.getRootElements()) {
+        collect(element);
+      }
+    }
+    // never claim any annotation, other processors may be interested as well
+    return false;
+  }
+
+  private void collect(final Element element) {
+    if (element.getKind() == ElementKind.CLASS && modelElements.isEntity(element.asType())) {
+      TypeElement type = (TypeElement) element;
+      index.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+    }
+    for (Element enclosed : element.getEnclosedElements()) {
+      if (enclosed.getKind().isClass() || enclosed.getKind().isInterface()) {
+        collect(enclosed);
+      }
+    }
+  }
+
+  private void writeIndex() {
+    try {
+      FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+        ConstraintIndex.RESOURCE_NAME);
+      try (Writer writer = resource.openWriter()) {
+        index.write(writer);
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write valdr constraint index: " + e
+        .getMessage());
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.github.valdr.processor;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+
+/**
+ * Compile time counterpart of the reflective queries the {@link com.github.valdr.ClasspathScanner} and the {@link
+ * com.github.valdr.ConstraintParser} run against model classes.
+ */
+final class ModelElements {
+  static final String ENTITY_ANNOTATION = "javax.persistence.Entity";
+
+  private final Types types;
+
+  ModelElements(final Types types) {
+    this.types = types;
+  }
+
+  /**
+   * @param type type to check
+   * @return whether the type or any of its super types is annotated with {@code javax.persistence.Entity}
+   */
+  boolean isEntity(final TypeMirror type) {
+    if (type.getKind() != TypeKind.DECLARED) {
+      return false;
+    }
+    if (hasAnnotation(((DeclaredType) type).asElement(), ENTITY_ANNOTATION)) {
+      return true;
+    }
+    for (TypeMirror supertype : types.directSupertypes(type)) {
+      if (isEntity(supertype)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param type a class
+   * @return super class of the passed class or null if there is none
+   */
+  TypeElement getSuperclass(final TypeElement type) {
+    TypeMirror superclass = type.getSuperclass();
+    return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+  }
+
+  /**
+   * @param element             annotated element
+   * @param annotationClassName fully qualified name of the annotation class
+   * @return whether the element is directly annotated with the annotation
+   */
+  boolean hasAnnotation(final Element element, final String annotationClassName) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      if (getAnnotationClassName(annotation).equals(annotationClassName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param annotation annotation
+   * @return fully qualified name of the annotation class
+   */
+  String getAnnotationClassName(final AnnotationMirror annotation) {
+    return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+  }
+}
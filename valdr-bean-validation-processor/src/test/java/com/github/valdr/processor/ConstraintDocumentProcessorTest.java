@@ -0,0 +1,221 @@
+package com.github.valdr.processor;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.valdr.ConstraintParser;
+import com.github.valdr.Options;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+/**
+ * Tests ConstraintDocumentProcessor.
+ */
+public class ConstraintDocumentProcessorTest {
+  private ClassLoader originalContextClassLoader;
+  private URLClassLoader modelClassLoader;
+
+  /**
+   * Remembers the context class loader which is replaced by tests.
+   */
+  @Before
+  public void setUp() {
+    originalContextClassLoader = Thread.currentThread().getContextClassLoader();
+  }
+
+  /**
+   * Restores the context class loader.
+   *
+   * @throws IOException never
+   */
+  @After
+  public void tearDown() throws IOException {
+    Thread.currentThread().setContextClassLoader(originalContextClassLoader);
+    if (modelClassLoader != null) {
+      modelClassLoader.close();
+    }
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException                 never
+   * @throws ReflectiveOperationException never
+   */
+  @Test
+  public void shouldGenerateSameDocumentAsRuntimeParser() throws IOException, ReflectiveOperationException {
+    // given
+    File outputDirectory = compileModel();
+    useModelClassLoader(outputDirectory);
+    Options options = createOptions();
+    options.setUsePrecompiledRules(false);
+    options.setUseConstraintIndex(false);
+
+    // when
+    String generated = Files.toString(new File(outputDirectory, ConstraintParser.PRECOMPILED_RULES_RESOURCE),
+      Charsets.UTF_8);
+    String parsed = new ConstraintParser(options).parse();
+
+    // then
+    ObjectMapper objectMapper = new ObjectMapper();
+    JsonNode expected = objectMapper.readTree(parsed);
+    assertThat(expected.size(), is(2));
+    assertThat(objectMapper.readTree(generated), is(expected));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException                 never
+   * @throws ReflectiveOperationException never
+   */
+  @Test
+  public void shouldServeGeneratedDocumentAtRuntime() throws IOException, ReflectiveOperationException {
+    // given
+    File outputDirectory = compileModel();
+    useModelClassLoader(outputDirectory);
+
+    Options options = createOptions();
+    options.setUsePrecompiledRules(true);
+
+    // when
+    String parsed = new ConstraintParser(options).parse();
+
+    // then
+    assertThat(parsed, is(Files.toString(new File(outputDirectory, ConstraintParser.PRECOMPILED_RULES_RESOURCE),
+      Charsets.UTF_8)));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException                 never
+   * @throws ReflectiveOperationException never
+   */
+  @Test
+  public void shouldIgnoreGeneratedDocumentByDefault() throws IOException, ReflectiveOperationException {
+    // given
+    File outputDirectory = compileModel();
+    Files.write("{}", new File(outputDirectory, ConstraintParser.PRECOMPILED_RULES_RESOURCE), Charsets.UTF_8);
+    useModelClassLoader(outputDirectory);
+
+    // when
+    String parsed = new ConstraintParser(createOptions()).parse();
+
+    // then
+    assertThat(new ObjectMapper().readTree(parsed).size(), is(2));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException                 never
+   * @throws ReflectiveOperationException never
+   */
+  @Test
+  public void shouldParseIfSeveralGeneratedDocumentsAreInClasspath() throws IOException, ReflectiveOperationException {
+    // given
+    File outputDirectory = compileModel();
+    File otherModuleDirectory = compileModel();
+    Files.write("{}", new File(otherModuleDirectory, ConstraintParser.PRECOMPILED_RULES_RESOURCE), Charsets.UTF_8);
+    useModelClassLoader(otherModuleDirectory, outputDirectory);
+    Options options = createOptions();
+    options.setUsePrecompiledRules(true);
+
+    // when
+    String parsed = new ConstraintParser(options).parse();
+
+    // then
+    assertThat(new ObjectMapper().readTree(parsed).size(), is(2));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldNotGenerateDocumentWithoutConfiguration() throws IOException {
+    // given
+    TestCompiler compiler = withModelSources(new TestCompiler());
+
+    // when
+    File outputDirectory = compiler.compile(new ConstraintDocumentProcessor());
+
+    // then
+    assertThat(new File(outputDirectory, ConstraintParser.PRECOMPILED_RULES_RESOURCE).exists(), is(false));
+  }
+
+  private File compileModel() throws IOException {
+    File configFile = File.createTempFile("valdr-bean-validation", ".json");
+    configFile.deleteOnExit();
+    new ObjectMapper().writeValue(configFile, createOptions());
+    TestCompiler compiler = withModelSources(new TestCompiler())
+      .withOption(ConstraintDocumentProcessor.CONFIG_OPTION, configFile.getAbsolutePath());
+    return compiler.compile(new ConstraintDocumentProcessor());
+  }
+
+  private void useModelClassLoader(final File... outputDirectories) throws IOException {
+    URL[] urls = new URL[outputDirectories.length];
+    for (int i = 0; i < outputDirectories.length; i++) {
+      urls[i] = outputDirectories[i].toURI().toURL();
+    }
+    modelClassLoader = new URLClassLoader(urls, getClass().getClassLoader());
+    Thread.currentThread().setContextClassLoader(modelClassLoader);
+  }
+
+  private Options createOptions() {
+    Options options = new Options();
+    options.setModelPackages(Lists.newArrayList("test.model"));
+    options.setExcludedClasses(Lists.newArrayList("test.model.Ignored"));
+    options.setExcludedFields(Lists.newArrayList("test.model.Person#ignoredField"));
+    options.setCustomAnnotationClasses(Lists.newArrayList("org.hibernate.validator.constraints.CreditCardNumber"));
+    return options;
+  }
+
+  private TestCompiler withModelSources(final TestCompiler compiler) {
+    return compiler
+      .withSource("test.model.Base", "package test.model;\n" +
+        "public class Base {\n" +
+        "  @javax.validation.constraints.NotNull private String id;\n" +
+        "}")
+      .withSource("test.model.Person", "package test.model;\n" +
+        "import javax.validation.constraints.*;\n" +
+        "@javax.persistence.Entity\n" +
+        "public class Person extends Base {\n" +
+        "  @NotNull private String firstName;\n" +
+        "  @NotNull(message = \"custom\") @Size(min = 2, max = 10) private String lastName;\n" +
+        "  @Size(max = 3) private java.util.List<String> nickNames;\n" +
+        "  @Pattern(regexp = \"a\\\\.c\", flags = Pattern.Flag.CASE_INSENSITIVE) private String code;\n" +
+        "  @org.hibernate.validator.constraints.Email private String email;\n" +
+        "  @org.hibernate.validator.constraints.CreditCardNumber private String creditCardNumber;\n" +
+        "  @Digits(integer = 3, fraction = 2) private java.math.BigDecimal amount;\n" +
+        "  @Min(1) @Max(99) private int age;\n" +
+        "  @Past private java.util.Date birthday;\n" +
+        "  @NotNull private String ignoredField;\n" +
+        "  @Deprecated private String unconstrained;\n" +
+        "  @javax.persistence.Entity public static class Nested {\n" +
+        "    @NotNull private String name;\n" +
+        "  }\n" +
+        "}")
+      .withSource("test.model.Ignored", "package test.model;\n" +
+        "@javax.persistence.Entity\n" +
+        "public class Ignored {\n" +
+        "  @javax.validation.constraints.NotNull private String name;\n" +
+        "}")
+      .withSource("test.other.Outside", "package test.other;\n" +
+        "@javax.persistence.Entity\n" +
+        "public class Outside {\n" +
+        "  @javax.validation.constraints.NotNull private String name;\n" +
+        "}");
+  }
+}
@@ -0,0 +1,78 @@
+package com.github.valdr.processor;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import org.junit.Test;
+import com.github.valdr.ConstraintIndex;
+
+/**
+ * Tests ConstraintIndexProcessor.
+ */
+public class ConstraintIndexProcessorTest {
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldIndexEntitiesAndTheirSubClasses() throws IOException {
+    // given
+    TestCompiler compiler = new TestCompiler()
+      .withSource("test.model.Person", "package test.model;\n" +
+        "@javax.persistence.Entity\n" +
+        "public class Person {\n" +
+        "  @javax.validation.constraints.NotNull private String firstName;\n" +
+        "  @Deprecated private String nickName;\n" +
+        "  @javax.validation.constraints.Size(max = 3) private String lastName;\n" +
+        "  @javax.persistence.Entity public static class Nested {\n" +
+        "    @javax.validation.constraints.NotNull private String name;\n" +
+        "  }\n" +
+        "}")
+      .withSource("test.model.Employee", "package test.model;\n" +
+        "public class Employee extends Person {\n" +
+        "  @javax.validation.constraints.Min(1) private int number;\n" +
+        "}")
+      .withSource("test.model.NoEntity", "package test.model;\n" +
+        "public class NoEntity {\n" +
+        "  @javax.validation.constraints.NotNull private String name;\n" +
+        "}");
+
+    // when
+    ConstraintIndex index = readIndex(compiler.compile(new ConstraintIndexProcessor()));
+
+    // then
+    assertThat(index.getClassNames(), contains("test.model.Employee", "test.model.Person",
+      "test.model.Person$Nested"));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldNotWriteIndexWithoutEntities() throws IOException {
+    // given
+    TestCompiler compiler = new TestCompiler().withSource("test.model.NoEntity", "package test.model;\n" +
+      "public class NoEntity {\n" +
+      "}");
+
+    // when
+    File outputDirectory = compiler.compile(new ConstraintIndexProcessor());
+
+    // then
+    assertThat(new File(outputDirectory, ConstraintIndex.RESOURCE_NAME).exists(), is(false));
+  }
+
+  private ConstraintIndex readIndex(final File outputDirectory) throws IOException {
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] {outputDirectory.toURI().toURL()}, null)) {
+      return ConstraintIndex.read(classLoader);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.github.valdr.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.processing.Processor;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+/**
+ * Compiles in-memory Java sources with a given annotation processor into a temporary directory.
+ */
+public class TestCompiler {
+  private final List<JavaFileObject> sources = Lists.newArrayList();
+  private final List<String> options = Lists.newArrayList();
+  private final File outputDirectory = Files.createTempDir();
+
+  /**
+   * Adds a source file.
+   *
+   * @param className fully qualified name of the (top level) class
+   * @param source    Java source code
+   * @return this
+   */
+  public TestCompiler withSource(final String className, final String source) {
+    URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+    sources.add(new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+        return source;
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Adds a processor option.
+   *
+   * @param key   option key
+   * @param value option value
+   * @return this
+   */
+  public TestCompiler withOption(final String key, final String value) {
+    options.add("-A" + key + "=" + value);
+    return this;
+  }
+
+  /**
+   * Compiles all sources using the passed processor.
+   *
+   * @param processor annotation processor to apply
+   * @return directory containing the class files and generated resources
+   * @throws IOException if compilation fails
+   */
+  public File compile(final Processor processor) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    StringWriter diagnostics = new StringWriter();
+    List<String> compilerOptions = Lists.newArrayList(Arrays.asList("-d", outputDirectory.getAbsolutePath(),
+      "-classpath", System.getProperty("java.class.path")));
+    compilerOptions.addAll(options);
+    JavaCompiler.CompilationTask task = compiler.getTask(diagnostics, null, null, compilerOptions, null, sources);
+    task.setProcessors(Arrays.asList(processor));
+    if (!task.call()) {
+      throw new IOException("Compilation failed: " + diagnostics);
+    }
+    return outputDirectory;
+  }
+}
@@ -18,19 +18,19 @@ import com.google.common.collect.Lists;
 public class AnnotatedClass {
   private final Class clazz;
   private final List<String> excludedFields;
-  private final Iterable<Class<? extends Annotation>> relevantAnnotationClasses;
+  private final RelevantAnnotations relevantAnnotations;
 
   /**
    * @param clazz                     wrapped class
    * @param excludedFields            collection of fully qualified field names which are skipped by the parser
-   * @param relevantAnnotationClasses only these annotation classes are considered when {@link
+   * @param relevantAnnotations       only these annotation classes are considered when {@link
    *                                  AnnotatedClass#extractValidationRules()} is invoked
    */
-  AnnotatedClass(final Class clazz, final List<String> excludedFields, final Iterable<Class<? extends Annotation>>
-    relevantAnnotationClasses) {
+  AnnotatedClass(final Class clazz, final List<String> excludedFields, final RelevantAnnotations
+    relevantAnnotations) {
     this.clazz = clazz;
     this.excludedFields = excludedFields;
-    this.relevantAnnotationClasses = relevantAnnotationClasses;
+    this.relevantAnnotations = relevantAnnotations;
   }
 
   /**
@@ -43,7 +43,7 @@ public class AnnotatedClass {
  * @throws IllegalArgumentException
  * @throws IllegalAccessException
  * @throws InstantiationException
-   * @see AnnotatedClass(Class, Iterable)
+   * @see AnnotatedClass(Class, List, RelevantAnnotations)
    */
   ClassConstraints extractValidationRules() throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
     final ClassConstraints classConstraints = new ClassConstraints();
@@ -51,7 +51,7 @@ public class AnnotatedClass {
     for (Field field : allFields) {
       if (isNotExcluded(field)) {
         FieldConstraints fieldValidationRules = new AnnotatedField(field,
-          relevantAnnotationClasses).extractValidationRules();
+          relevantAnnotations).extractValidationRules();
         if (fieldValidationRules.size() > 0) {
           classConstraints.put(field.getName(), fieldValidationRules);
         }
@@ -67,7 +67,7 @@ public class AnnotatedClass {
 
   private Predicate<? super Field> buildAnnotationsPredicate() {
     Collection<Predicate<? super Field>> predicates = Lists.newArrayList();
-    for (Class<? extends Annotation> annotationClass : relevantAnnotationClasses) {
+    for (Class<? extends Annotation> annotationClass : relevantAnnotations.getAnnotationClasses()) {
       predicates.add(ReflectionUtils.withAnnotation(annotationClass));
     }
     return Predicates.or(predicates);
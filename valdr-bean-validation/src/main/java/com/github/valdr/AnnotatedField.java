@@ -3,7 +3,6 @@ package com.github.valdr;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import com.google.common.collect.Iterables;
 
 /**
  * Wrapper around a field with Bean Validation (and possibly other) annotations. Allows to extract validation rules
@@ -11,16 +10,16 @@ import com.google.common.collect.Iterables;
  */
 public class AnnotatedField {
   private final Field field;
-  private final Iterable<Class<? extends Annotation>> relevantAnnotationClasses;
+  private final RelevantAnnotations relevantAnnotations;
 
   /**
-   * @param field                     wrapped field
-   * @param relevantAnnotationClasses only these annotation classes are considered when {@link
-   *                                  AnnotatedField#extractValidationRules()} is invoked
+   * @param field               wrapped field
+   * @param relevantAnnotations only these annotation classes are considered when {@link
+   *                            AnnotatedField#extractValidationRules()} is invoked
    */
-  AnnotatedField(final Field field, final Iterable<Class<? extends Annotation>> relevantAnnotationClasses) {
+  AnnotatedField(final Field field, final RelevantAnnotations relevantAnnotations) {
     this.field = field;
-    this.relevantAnnotationClasses = relevantAnnotationClasses;
+    this.relevantAnnotations = relevantAnnotations;
   }
 
   /**
@@ -33,23 +32,16 @@ public class AnnotatedField {
  * @throws IllegalArgumentException
  * @throws IllegalAccessException
  * @throws InstantiationException
-   * @see AnnotatedField(Class, Iterable)
+   * @see AnnotatedField(Field, RelevantAnnotations)
    */
   FieldConstraints extractValidationRules() throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
     Annotation[] annotations = field.getAnnotations();
     FieldConstraints fieldConstraints = new FieldConstraints();
 
     for (Annotation annotation : annotations) {
-      if (Iterables.contains(relevantAnnotationClasses, annotation.annotationType())) {
-        ConstraintAttributes constraintAttributes = new ConstraintAttributes(annotation, field.getType());
-        BuiltInConstraint supportedValidator = BuiltInConstraint.valueOfAnnotationClassOrNull(annotation
-          .annotationType());
-        if (supportedValidator == null) {
-          fieldConstraints.put(annotation.annotationType().getName(), constraintAttributes);
-        } else {
-          fieldConstraints.put(supportedValidator.toString(),
-            supportedValidator.createDecoratorFor(constraintAttributes));
-        }
+      RelevantAnnotations.Handler handler = relevantAnnotations.get(annotation.annotationType());
+      if (handler != null) {
+        handler.addTo(fieldConstraints, new ConstraintAttributes(annotation, field.getType()));
       }
     }
 
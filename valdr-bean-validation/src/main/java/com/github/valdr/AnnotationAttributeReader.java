@@ -0,0 +1,93 @@
+package com.github.valdr;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+
+/**
+ * Reads the attributes of annotations of one annotation type. The attribute names and the method handles of the
+ * attribute accessors are looked up once per annotation type (see {@link #forType(Class)}) rather than for every
+ * annotation instance. The attributes {@code groups} and {@code payload} every Bean Validation constraint declares are
+ * irrelevant for valdr and are skipped right away.
+ */
+final class AnnotationAttributeReader {
+  private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Annotation.class);
+
+  private static final ClassValue<AnnotationAttributeReader> READERS = new ClassValue<AnnotationAttributeReader>() {
+    @Override
+    protected AnnotationAttributeReader computeValue(final Class<?> type) {
+      return new AnnotationAttributeReader(type);
+    }
+  };
+
+  private final String[] names;
+  private final MethodHandle[] accessors;
+
+  private AnnotationAttributeReader(final Class<?> annotationType) {
+    List<String> attributeNames = Lists.newArrayList();
+    List<MethodHandle> attributeAccessors = Lists.newArrayList();
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    for (Method method : annotationType.getDeclaredMethods()) {
+      if (method.getParameterTypes().length == 0 && method.getReturnType() != void.class && !isUnusedAttribute(
+        method.getName())) {
+        // the annotation type may be declared non-public, e.g. as a nested type
+        method.setAccessible(true);
+        try {
+          attributeAccessors.add(lookup.unreflect(method).asType(ACCESSOR_TYPE));
+        } catch (IllegalAccessException e) {
+          throw new IllegalStateException("Cannot access attribute " + method.getName() + " of annotation " +
+            annotationType.getName(), e);
+        }
+        attributeNames.add(method.getName());
+      }
+    }
+    names = attributeNames.toArray(new String[attributeNames.size()]);
+    accessors = attributeAccessors.toArray(new MethodHandle[attributeAccessors.size()]);
+  }
+
+  /**
+   * @param annotationType annotation type
+   * @return reader for annotations of the passed type
+   */
+  static AnnotationAttributeReader forType(final Class<? extends Annotation> annotationType) {
+    return READERS.get(annotationType);
+  }
+
+  /**
+   * @return number of attributes {@link #readInto(Annotation, Map)} puts
+   */
+  int size() {
+    return names.length;
+  }
+
+  /**
+   * Puts all relevant attributes of the annotation into the passed map, attribute values are not converted.
+   *
+   * @param annotation annotation of the type of this reader
+   * @param attributes map the attributes are put into keyed by attribute name
+   */
+  void readInto(final Annotation annotation, final Map<String, Object> attributes) {
+    for (int i = 0; i < accessors.length; i++) {
+      try {
+        attributes.put(names[i], (Object) accessors[i].invokeExact(annotation));
+      } catch (Throwable e) {
+        Throwables.propagateIfPossible(e);
+        throw new IllegalStateException("Could not obtain annotation attribute values", e);
+      }
+    }
+  }
+
+  /**
+   * @param attributeName name of an annotation attribute
+   * @return whether the attribute is irrelevant for valdr
+   */
+  static boolean isUnusedAttribute(final String attributeName) {
+    return "groups".equals(attributeName) || "payload".equals(attributeName);
+  }
+}
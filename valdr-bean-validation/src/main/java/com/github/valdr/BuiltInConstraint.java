@@ -1,8 +1,10 @@
 package com.github.valdr;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import javax.validation.constraints.Digits;
 import javax.validation.constraints.Future;
 import javax.validation.constraints.Max;
@@ -12,9 +14,9 @@ import javax.validation.constraints.Past;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 import lombok.Getter;
-import lombok.SneakyThrows;
 import org.hibernate.validator.constraints.Email;
 import com.github.valdr.decorator.AbstractConstraintAttributesDecorator;
+import com.github.valdr.decorator.DecoratorFactory;
 import com.github.valdr.decorator.NullDecorator;
 import com.github.valdr.decorator.PatternDecorator;
 import com.google.common.base.Function;
@@ -29,24 +31,35 @@ public enum BuiltInConstraint {
 
   // CHECKSTYLE:OFF
   REQUIRED("required", NotNull.class), MIN("min", Min.class), MAX("max", Max.class), SIZE("size", Size.class),
-  DIGITS("digits", Digits.class), PATTERN("pattern", Pattern.class, PatternDecorator.class), FUTURE("future",
+  DIGITS("digits", Digits.class), PATTERN("pattern", Pattern.class, new PatternDecorator.Factory()), FUTURE("future",
     Future.class), PAST("past", Past.class), EMAIL("hibernateEmail", Email.class), URL("hibernateUrl",
     org.hibernate.validator.constraints.URL.class);
   // CHECKSTYLE:ON
 
+  private static final Map<Class<? extends Annotation>, BuiltInConstraint> BY_ANNOTATION_CLASS =
+    new IdentityHashMap<>();
+  private static final Map<String, BuiltInConstraint> BY_ANNOTATION_CLASS_NAME = new HashMap<>();
+
+  static {
+    for (BuiltInConstraint constraint : values()) {
+      BY_ANNOTATION_CLASS.put(constraint.beanValidationAnnotation, constraint);
+      BY_ANNOTATION_CLASS_NAME.put(constraint.beanValidationAnnotation.getName(), constraint);
+    }
+  }
+
   @Getter
   private final Class<? extends Annotation> beanValidationAnnotation;
-  private final Class<? extends AbstractConstraintAttributesDecorator> decorator;
+  private final DecoratorFactory decoratorFactory;
   private final String camelCaseName;
 
   private BuiltInConstraint(final String camelCaseName, final Class<? extends Annotation> beanValidationAnnotation) {
-    this(camelCaseName, beanValidationAnnotation, NullDecorator.class);
+    this(camelCaseName, beanValidationAnnotation, new NullDecorator.Factory(beanValidationAnnotation.getName()));
   }
 
   private BuiltInConstraint(final String camelCaseName, final Class<? extends Annotation> beanValidationAnnotation,
-                            final Class<? extends AbstractConstraintAttributesDecorator> decorator) {
+                            final DecoratorFactory decoratorFactory) {
     this.camelCaseName = camelCaseName;
-    this.decorator = decorator;
+    this.decoratorFactory = decoratorFactory;
     this.beanValidationAnnotation = beanValidationAnnotation;
   }
 
@@ -60,16 +73,9 @@ public enum BuiltInConstraint {
    *
    * @param attributes the attributes to decorate
    * @return decorator
- * @throws SecurityException
- * @throws NoSuchMethodException
- * @throws InvocationTargetException
- * @throws IllegalArgumentException
- * @throws IllegalAccessException
- * @throws InstantiationException
    */
-  @SneakyThrows(ReflectiveOperationException.class)
-  public AbstractConstraintAttributesDecorator createDecoratorFor(final ConstraintAttributes attributes) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
-    return decorator.getConstructor(ConstraintAttributes.class).newInstance(attributes);
+  public AbstractConstraintAttributesDecorator createDecoratorFor(final ConstraintAttributes attributes) {
+    return decoratorFactory.createDecorator(attributes);
   }
 
   /**
@@ -97,15 +103,27 @@ public enum BuiltInConstraint {
    * @return enum value matching the passed annotation or null
    */
   public static BuiltInConstraint valueOfAnnotationClassOrNull(final Class<? extends Annotation> beanValidationAnnotation) {
-    for (BuiltInConstraint supportedValidator : values()) {
-      if (supportedValidator.getBeanValidationAnnotation().equals(beanValidationAnnotation)) {
-        return supportedValidator;
-      }
-    }
-    return null;
+    return BY_ANNOTATION_CLASS.get(beanValidationAnnotation);
+  }
+
+  /**
+   * Finds enum value whose annotation class member has the passed name.
+   *
+   * @param beanValidationAnnotationClassName fully qualified name of the annotation class
+   * @return enum value matching the passed annotation class name or null
+   */
+  public static BuiltInConstraint valueOfAnnotationClassNameOrNull(final String beanValidationAnnotationClassName) {
+    return BY_ANNOTATION_CLASS_NAME.get(beanValidationAnnotationClassName);
   }
 
   public Class<? extends Annotation> getBeanValidationAnnotation() {
       return beanValidationAnnotation;
   }
+
+  /**
+   * @return factory of the decorator which is wrapped around the attributes of this constraint
+   */
+  public DecoratorFactory getDecoratorFactory() {
+    return decoratorFactory;
+  }
 }
@@ -0,0 +1,361 @@
+package com.github.valdr;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.annotation.Annotation;
+import org.reflections.vfs.Vfs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.github.valdr.discovery.ModelClassDiscovery;
+import com.github.valdr.discovery.TypeMetadata;
+import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Finds model classes by reading class files directly instead of loading them. Which classes are model classes is
+ * decided by a {@link ModelClassDiscovery} on the class file metadata. Of these only the classes which have at least
+ * one field with a relevant annotation, declared by the class itself or inherited, are returned; classes without
+ * constraints therefore are never loaded at all. If a super class isn't in the scanned packages its fields are
+ * unknown, such classes are returned in any case. Class files which cannot be read are skipped with a warning. The
+ * classpath URLs may be read concurrently, the result is the same.
+ */
+final class ClassFileScanner {
+  private static final String OBJECT_CLASS_NAME = Object.class.getName();
+
+  private final Logger logger = LoggerFactory.getLogger(ClassFileScanner.class);
+  private final Predicate<String> inputFilter;
+  private final ModelClassDiscovery discovery;
+  private final Set<String> relevantAnnotationNames;
+  private final ExecutorService executor;
+
+  /**
+   * @param inputFilter             selects the class files to read by their fully qualified file name, e.g. {@code
+   *                                com.company.model.Person.class}
+   * @param discovery               decides which classes are model classes
+   * @param relevantAnnotationNames names of the annotation types which make up constraints, {@code null} to return
+   *                                model classes regardless of their fields
+   * @param executor                reads the URLs concurrently, {@code null} to read them one after the other
+   */
+  ClassFileScanner(final Predicate<String> inputFilter, final ModelClassDiscovery discovery,
+    final Set<String> relevantAnnotationNames, final ExecutorService executor) {
+    this.inputFilter = inputFilter;
+    this.discovery = discovery;
+    this.relevantAnnotationNames = relevantAnnotationNames;
+    this.executor = executor;
+  }
+
+  /**
+   * @param urls classpath URLs to scan
+   * @return names of the model classes with constraints, sorted
+   * @throws IllegalStateException if a jar or directory cannot be read
+   */
+  Set<String> scan(final Collection<URL> urls) {
+    return scan(urls, Collections.<String>emptySet());
+  }
+
+  /**
+   * @param urls           classpath URLs to scan
+   * @param modelTypeNames names of model types outside the URLs, their sub classes in the URLs are model classes too
+   * @return names of the model classes with constraints, sorted
+   * @throws IllegalStateException if a jar or directory cannot be read
+   */
+  Set<String> scan(final Collection<URL> urls, final Set<String> modelTypeNames) {
+    Set<String> classNames = new TreeSet<>();
+    for (Map.Entry<String, Boolean> modelType : findModelTypes(urls, modelTypeNames).entrySet()) {
+      if (modelType.getValue()) {
+        classNames.add(modelType.getKey());
+      }
+    }
+    return classNames;
+  }
+
+  /**
+   * @param urls           classpath URLs to scan
+   * @param modelTypeNames names of model types outside the URLs, their sub classes in the URLs are model classes too
+   * @return names of all model classes mapped to whether they have constraints, sorted
+   * @throws IllegalStateException if a jar or directory cannot be read
+   */
+  SortedMap<String, Boolean> findModelTypes(final Collection<URL> urls, final Set<String> modelTypeNames) {
+    Map<String, ClassFileInfo> classes = new HashMap<>();
+    if (executor == null || urls.size() < 2) {
+      for (URL url : urls) {
+        classes.putAll(read(url));
+      }
+    } else {
+      // merged in URL order such that the result doesn't depend on which URL is read first
+      List<Future<Map<String, ClassFileInfo>>> futures = new ArrayList<>();
+      for (final URL url : urls) {
+        futures.add(executor.submit(new Callable<Map<String, ClassFileInfo>>() {
+          @Override
+          public Map<String, ClassFileInfo> call() {
+            return read(url);
+          }
+        }));
+      }
+      for (Future<Map<String, ClassFileInfo>> future : futures) {
+        classes.putAll(getResult(future));
+      }
+    }
+    for (ClassFileInfo classFileInfo : classes.values()) {
+      classFileInfo.link(classes);
+    }
+    SortedMap<String, Boolean> modelTypes = new TreeMap<>();
+    int constrained = 0;
+    for (ClassFileInfo classFileInfo : classes.values()) {
+      if (discovery.isModelClass(classFileInfo) || !Collections.disjoint(classFileInfo.getSupertypeNames(),
+        modelTypeNames)) {
+        boolean hasConstraints = relevantAnnotationNames == null || hasConstraints(classFileInfo);
+        modelTypes.put(classFileInfo.name, hasConstraints);
+        constrained += hasConstraints ? 1 : 0;
+      }
+    }
+    logger.info("Read {} class files, found {} model classes with constraints.", classes.size(), constrained);
+    return modelTypes;
+  }
+
+  /**
+   * @param url classpath URL
+   * @return the jar or directory denoted by the URL or {@code null} if it doesn't denote a local file
+   */
+  static File toFile(final URL url) {
+    if (!"file".equals(url.getProtocol())) {
+      return null;
+    }
+    try {
+      return new File(url.toURI());
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Reads the class files of a jar or directory. Jars are read through {@link ZipFile}, which maps the central
+   * directory into memory and provides random access to the entries, other URLs through Reflections' {@link Vfs}.
+   */
+  private Map<String, ClassFileInfo> read(final URL url) {
+    File file = toFile(url);
+    final Map<String, ClassFileInfo> classes = new HashMap<>();
+    try {
+      if (file != null && file.isFile()) {
+        try (ZipFile zipFile = new ZipFile(file)) {
+          Enumeration<? extends ZipEntry> entries = zipFile.entries();
+          while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String fileName = entry.getName().replace('/', '.');
+            if (isSelected(fileName)) {
+              try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                add(classes, inputStream);
+              } catch (IOException | RuntimeException e) {
+                skip(url, fileName, e);
+              }
+            }
+          }
+        }
+      } else if (file != null && file.isDirectory()) {
+        final Path root = file.toPath();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult visitFile(final Path path, final BasicFileAttributes attributes) throws IOException {
+            String fileName = root.relativize(path).toString().replace(File.separatorChar, '.');
+            if (isSelected(fileName)) {
+              try (InputStream inputStream = Files.newInputStream(path)) {
+                add(classes, inputStream);
+              } catch (IOException | RuntimeException e) {
+                skip(url, fileName, e);
+              }
+            }
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFileFailed(final Path path, final IOException e) throws IOException {
+            String fileName = root.relativize(path).toString().replace(File.separatorChar, '.');
+            if (!isSelected(fileName)) {
+              throw e;
+            }
+            skip(url, fileName, e);
+            return FileVisitResult.CONTINUE;
+          }
+        });
+      } else {
+        Vfs.Dir dir = Vfs.fromURL(url);
+        try {
+          for (Vfs.File vfsFile : dir.getFiles()) {
+            String fileName = vfsFile.getRelativePath().replace('/', '.');
+            if (isSelected(fileName)) {
+              try (InputStream inputStream = vfsFile.openInputStream()) {
+                add(classes, inputStream);
+              } catch (IOException | RuntimeException e) {
+                skip(url, fileName, e);
+              }
+            }
+          }
+        } finally {
+          dir.close();
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot read class files of " + url + ".", e);
+    }
+    return classes;
+  }
+
+  /**
+   * Skips a class file which cannot be read or isn't a valid class file, like Reflections does; a single corrupt entry
+   * shouldn't fail the whole scan.
+   */
+  private void skip(final URL url, final String fileName, final Exception e) {
+    logger.warn("Skipping class file " + fileName + " of " + url + ", it cannot be read.", e);
+  }
+
+  private boolean isSelected(final String fileName) {
+    return fileName.endsWith(".class") && inputFilter.apply(fileName);
+  }
+
+  private void add(final Map<String, ClassFileInfo> classes, final InputStream inputStream) throws IOException {
+    ClassFile classFile = new ClassFile(new DataInputStream(new BufferedInputStream(inputStream)));
+    ClassFileInfo classFileInfo = new ClassFileInfo(classFile.getName(), classFile.getSuperclass(), Arrays.asList(
+      classFile.getInterfaces()), getAnnotationNames((AnnotationsAttribute) classFile.getAttribute(
+      AnnotationsAttribute.visibleTag)));
+    for (Object field : classFile.getFields()) {
+      FieldInfo fieldInfo = (FieldInfo) field;
+      classFileInfo.fieldAnnotationNames.addAll(getAnnotationNames((AnnotationsAttribute) fieldInfo.getAttribute(
+        AnnotationsAttribute.visibleTag)));
+    }
+    classes.put(classFileInfo.name, classFileInfo);
+  }
+
+  private static Map<String, ClassFileInfo> getResult(final Future<Map<String, ClassFileInfo>> future) {
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  private boolean hasConstraints(final ClassFileInfo classFileInfo) {
+    ClassFileInfo current = classFileInfo;
+    while (true) {
+      if (!Collections.disjoint(current.fieldAnnotationNames, relevantAnnotationNames)) {
+        return true;
+      }
+      if (current.superclassName == null || OBJECT_CLASS_NAME.equals(current.superclassName)) {
+        return false;
+      }
+      current = current.superclass;
+      if (current == null) {
+        // the fields of a super class outside the scanned packages are unknown
+        return true;
+      }
+    }
+  }
+
+  private static Set<String> getAnnotationNames(final AnnotationsAttribute annotationsAttribute) {
+    Set<String> annotationNames = new TreeSet<>();
+    if (annotationsAttribute != null) {
+      for (Annotation annotation : annotationsAttribute.getAnnotations()) {
+        annotationNames.add(annotation.getTypeName());
+      }
+    }
+    return annotationNames;
+  }
+
+  /**
+   * What the scanner knows about a class file. The super types are {@link #link(Map) linked} once all class files are
+   * read.
+   */
+  private static final class ClassFileInfo implements TypeMetadata {
+    private final String name;
+    private final String superclassName;
+    private final List<String> interfaceNames;
+    private final Set<String> annotationNames;
+    private final Set<String> fieldAnnotationNames = new HashSet<>();
+    private Map<String, ClassFileInfo> classes;
+    private ClassFileInfo superclass;
+    private Set<String> supertypeNames;
+
+    private ClassFileInfo(final String name, final String superclassName, final List<String> interfaceNames,
+      final Set<String> annotationNames) {
+      this.name = name;
+      this.superclassName = superclassName;
+      this.interfaceNames = interfaceNames;
+      this.annotationNames = annotationNames;
+    }
+
+    private void link(final Map<String, ClassFileInfo> allClasses) {
+      classes = allClasses;
+      superclass = superclassName == null ? null : allClasses.get(superclassName);
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public Set<String> getAnnotationNames() {
+      return Collections.unmodifiableSet(annotationNames);
+    }
+
+    @Override
+    public Set<String> getFieldAnnotationNames() {
+      return Collections.unmodifiableSet(fieldAnnotationNames);
+    }
+
+    @Override
+    public TypeMetadata getSuperclass() {
+      return superclass;
+    }
+
+    @Override
+    public Set<String> getSupertypeNames() {
+      if (supertypeNames == null) {
+        Set<String> names = new HashSet<>(interfaceNames);
+        if (superclassName != null) {
+          names.add(superclassName);
+        }
+        for (String supertypeName : new ArrayList<>(names)) {
+          ClassFileInfo supertype = classes.get(supertypeName);
+          if (supertype != null) {
+            names.addAll(supertype.getSupertypeNames());
+          }
+        }
+        supertypeNames = names;
+      }
+      return Collections.unmodifiableSet(supertypeNames);
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package com.github.valdr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.commons.lang3.StringUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.valdr.serializer.SerializationContext;
+
+/**
+ * Index of the per-class fragments of a validation rules document. Each fragment is the byte range of one top-level
+ * member ({@code "Person" : {...}}) of the document; the fragments aren't copied but point into the document. Sub
+ * documents for a selection of classes are built by concatenating the selected fragments with the separators of the
+ * document itself, therefore a sub document has the same style as the document and, if all classes are selected, is
+ * identical to it.
+ */
+final class ClassFragmentIndex {
+  private static final byte[] EMPTY_DOCUMENT = {'{', '}'};
+
+  private final byte[] json;
+  private final SortedMap<String, Fragment> fragments = new TreeMap<>();
+  private final Fragment prefix;
+  private final Fragment separator;
+  private final Fragment suffix;
+
+  /**
+   * @param json UTF-8 encoded JSON document, a JSON object with one member per class
+   * @throws IllegalStateException if the document cannot be read
+   */
+  ClassFragmentIndex(final byte[] json) {
+    this.json = json;
+    int firstEnd = -1;
+    int secondStart = -1;
+    int start = -1;
+    int end = -1;
+    try (JsonParser parser = SerializationContext.getObjectMapper().getFactory().createParser(json)) {
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          int fragmentStart = skipToName((int) parser.getTokenLocation().getByteOffset());
+          String name = parser.getCurrentName();
+          parser.nextToken();
+          parser.skipChildren();
+          int fragmentEnd = (int) parser.getCurrentLocation().getByteOffset();
+          fragments.put(name, new Fragment(fragmentStart, fragmentEnd));
+          if (start < 0) {
+            start = fragmentStart;
+            firstEnd = fragmentEnd;
+          } else if (secondStart < 0) {
+            secondStart = fragmentStart;
+          }
+          end = fragmentEnd;
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot index validation rules document.", e);
+    }
+    if (start < 0) {
+      prefix = null;
+      suffix = null;
+    } else {
+      prefix = new Fragment(0, start);
+      suffix = new Fragment(end, json.length);
+    }
+    separator = secondStart < 0 ? null : new Fragment(firstEnd, secondStart);
+  }
+
+  /**
+   * @return names of all classes in the document, sorted
+   */
+  SortedSet<String> getNames() {
+    return new TreeSet<>(fragments.keySet());
+  }
+
+  /**
+   * @param name name of a class as it appears in the document
+   * @return whether the document contains the class
+   */
+  boolean contains(final String name) {
+    return fragments.containsKey(name);
+  }
+
+  /**
+   * Selects the classes of a package and its sub-packages. The package of fully qualified names is taken from the name
+   * itself, the packages of simple names are looked up; a simple name is selected if any of the classes sharing it is
+   * in the package.
+   *
+   * @param packageName  package name
+   * @param packageNames package names per class name as it appears in the document, may be {@code null} if the
+   *                     document only contains fully qualified names
+   * @return names of the classes in the package, sorted
+   */
+  SortedSet<String> getNamesInPackage(final String packageName, final Map<String, ? extends Collection<String>>
+    packageNames) {
+    SortedSet<String> names = new TreeSet<>();
+    for (String name : fragments.keySet()) {
+      Collection<String> classPackageNames = isQualified(name) ? Collections.singleton(StringUtils.substringBeforeLast(
+        name, ".")) : packageNames == null ? null : packageNames.get(name);
+      if (classPackageNames != null && isInPackage(classPackageNames, packageName)) {
+        names.add(name);
+      }
+    }
+    return names;
+  }
+
+  /**
+   * @return whether all classes in the document appear with their fully qualified names
+   */
+  boolean hasQualifiedNamesOnly() {
+    for (String name : fragments.keySet()) {
+      if (!isQualified(name)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Builds the sub document containing the passed classes in document order. Names the document doesn't contain are
+   * ignored.
+   *
+   * @param names names of the classes to include
+   * @return UTF-8 encoded JSON document
+   */
+  byte[] select(final Collection<String> names) {
+    ByteArrayOutputStream document = null;
+    for (Map.Entry<String, Fragment> entry : fragments.entrySet()) {
+      if (names.contains(entry.getKey())) {
+        if (document == null) {
+          document = new ByteArrayOutputStream();
+          prefix.writeTo(document);
+        } else {
+          writeSeparator(document);
+        }
+        entry.getValue().writeTo(document);
+      }
+    }
+    if (document == null) {
+      return EMPTY_DOCUMENT.clone();
+    }
+    suffix.writeTo(document);
+    return document.toByteArray();
+  }
+
+  private static boolean isQualified(final String name) {
+    return name.indexOf('.') >= 0;
+  }
+
+  private static boolean isInPackage(final Collection<String> classPackageNames, final String packageName) {
+    for (String classPackageName : classPackageNames) {
+      if (classPackageName.equals(packageName) || classPackageName.startsWith(packageName + ".")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The token location of a member name may point to the separator in front of it, the name itself starts at the next
+   * quote.
+   */
+  private int skipToName(final int offset) {
+    int nameStart = offset;
+    while (nameStart < json.length && json[nameStart] != '"') {
+      nameStart++;
+    }
+    return nameStart;
+  }
+
+  private void writeSeparator(final ByteArrayOutputStream document) {
+    if (separator == null) {
+      document.write(',');
+    } else {
+      separator.writeTo(document);
+    }
+  }
+
+  /**
+   * Byte range within the document.
+   */
+  private final class Fragment {
+    private final int start;
+    private final int end;
+
+    private Fragment(final int start, final int end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    private void writeTo(final ByteArrayOutputStream outputStream) {
+      outputStream.write(json, start, end - start);
+    }
+  }
+}
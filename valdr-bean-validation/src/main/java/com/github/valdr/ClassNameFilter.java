@@ -0,0 +1,80 @@
+package com.github.valdr;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import com.google.common.base.Predicate;
+
+/**
+ * Selects the class files of the model packages, except the excluded classes, by their fully qualified file name
+ * (e.g. {@code com.company.model.Person.class}). Package names are matched as prefixes of the file name, excluded
+ * classes by their exact name. The package names are compiled into a trie and the excluded file names into a hash set
+ * such that a file name is matched in a single pass over its characters, regardless of the number of packages and
+ * exclusions. Without package names every file name is selected unless it is excluded.
+ */
+final class ClassNameFilter implements Predicate<String> {
+  private static final String CLASS_FILE_SUFFIX = ".class";
+
+  private final Node packagePrefixes = new Node();
+  private final Set<String> excludedFileNames = new HashSet<>();
+  private final boolean hasPackagePrefixes;
+
+  /**
+   * @param packageNames       names of the packages to select, empty names are ignored
+   * @param excludedClassNames fully qualified names of the classes to skip
+   */
+  ClassNameFilter(final Collection<String> packageNames, final Collection<String> excludedClassNames) {
+    boolean prefixes = false;
+    for (String packageName : packageNames) {
+      if (StringUtils.isNotEmpty(packageName)) {
+        packagePrefixes.add(packageName);
+        prefixes = true;
+      }
+    }
+    hasPackagePrefixes = prefixes;
+    for (String excludedClassName : excludedClassNames) {
+      excludedFileNames.add(excludedClassName + CLASS_FILE_SUFFIX);
+    }
+  }
+
+  @Override
+  public boolean apply(final String fileName) {
+    return (!hasPackagePrefixes || packagePrefixes.matchesPrefixOf(fileName)) && !excludedFileNames.contains(
+      fileName);
+  }
+
+  /**
+   * Trie node, a node is terminal if the path to it spells a complete prefix.
+   */
+  private static final class Node {
+    private final Map<Character, Node> children = new HashMap<>();
+    private boolean terminal;
+
+    private void add(final String prefix) {
+      Node node = this;
+      for (int i = 0; i < prefix.length(); i++) {
+        Node child = node.children.get(prefix.charAt(i));
+        if (child == null) {
+          child = new Node();
+          node.children.put(prefix.charAt(i), child);
+        }
+        node = child;
+      }
+      node.terminal = true;
+    }
+
+    private boolean matchesPrefixOf(final String value) {
+      Node node = this;
+      for (int i = 0; i < value.length() && !node.terminal; i++) {
+        node = node.children.get(value.charAt(i));
+        if (node == null) {
+          return false;
+        }
+      }
+      return node.terminal;
+    }
+  }
+}
@@ -1,25 +1,41 @@
 package com.github.valdr;
 
+import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
-import javax.persistence.Entity;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.apache.commons.lang3.StringUtils;
+import org.reflections.ReflectionUtils;
 import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
 import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
-import org.reflections.util.FilterBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.github.valdr.discovery.ModelClassDiscoveries;
+import com.google.common.base.Functions;
 import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
- * Provides means to scan the classpath for model classes that need to be parsed for constraint annotations.
+ * Provides means to scan the classpath for model classes that need to be parsed for constraint annotations. Which
+ * classes in the model packages are model classes is decided by the {@link ModelClassDiscoveries}, by default the
+ * classes annotated with {@code javax.persistence.Entity} and their sub classes.
  */
 public class ClasspathScanner {
   private final Logger logger = LoggerFactory.getLogger(ClasspathScanner.class);
   private final Options options;
+  private final Set<String> relevantAnnotationNames;
+  private final ModelClassDiscoveries discoveries;
 
   /**
    * Constructor.
@@ -27,22 +43,226 @@ public class ClasspathScanner {
    * @param options the only relevant input for the parser is this configuration
    */
   public ClasspathScanner(final Options options) {
+    this(options, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param options                 the only relevant input for the parser is this configuration
+   * @param relevantAnnotationNames names of the annotation types which make up constraints, used to skip model
+   *                                classes without constraints if class files are scanned (see {@link
+   *                                Options#getScanClassFiles()}), may be {@code null}
+   */
+  ClasspathScanner(final Options options, final Set<String> relevantAnnotationNames) {
     this.options = options;
+    this.relevantAnnotationNames = relevantAnnotationNames;
+    ClassLoader[] classLoaders = ClasspathHelper.classLoaders();
+    this.discoveries = new ModelClassDiscoveries(options, relevantAnnotationNames == null ?
+      getConstraintAnnotationNames() : relevantAnnotationNames, classLoaders.length == 0 ? null : classLoaders[0]);
   }
 
   /**
    * Scans the classpath to find all classes that are in the configured model packages. It ignores excluded classes.
+   * If the use of the {@link ConstraintIndex} is enabled the classes of jars and directories containing an index are
+   * taken from their index, only the others are scanned. The classpath URLs are scanned concurrently if so configured.
    *
    * @return classes to parse
    * @see com.github.valdr.Options#getModelPackages()
    * @see com.github.valdr.Options#getExcludedClasses()
+   * @see com.github.valdr.Options#getUseConstraintIndex()
+   * @see com.github.valdr.Options#getScannerParallelism()
    */
   public Set<Class<?>> findClassesToParse() {
-    ConfigurationBuilder cb = new ConfigurationBuilder().setUrls(buildClassLoaderUrls());
+    return findClassesToParse(null);
+  }
+
+  /**
+   * Like {@link #findClassesToParse()} but only scans the classpath URLs which changed since the scan results were
+   * stored in the passed cache.
+   *
+   * @param scanCache cache of previous scan results, may be {@code null}
+   * @return classes to parse
+   */
+  Set<Class<?>> findClassesToParse(final ScanCache scanCache) {
+    if (!hasModelPackages()) {
+      return Sets.newHashSet();
+    }
+    Collection<URL> urls = buildClassLoaderUrls();
+    if (scanCache != null) {
+      return loadClasses(scanClasspath(urls, scanCache));
+    }
+    Set<String> classNames = Sets.newHashSet();
+    Collection<URL> unindexedUrls = new ArrayList<>();
+    for (URL url : urls) {
+      Set<String> indexedClassNames = findIndexedClassNames(url);
+      if (indexedClassNames == null) {
+        unindexedUrls.add(url);
+      } else {
+        classNames.addAll(indexedClassNames);
+      }
+    }
+    if (!unindexedUrls.isEmpty()) {
+      // sub classes of indexed model classes are model classes as well
+      classNames.addAll(scanClasspath(unindexedUrls, Sets.newHashSet(classNames)));
+    }
+    return loadClasses(classNames);
+  }
+
+  private Set<String> scanClasspath(final Collection<URL> urls, final Set<String> modelTypeNames) {
+    int parallelism = getScannerParallelism();
+    if (parallelism <= 1) {
+      return scanClasspath(urls, null, modelTypeNames);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder().setDaemon(true)
+      .setNameFormat("valdr-scan-%d").build());
+    try {
+      return scanClasspath(urls, executor, modelTypeNames);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * @param executor       scans the classpath URLs concurrently, {@code null} to scan them one after the other
+   * @param modelTypeNames names of model types outside the URLs, their sub classes in the URLs are model classes too
+   */
+  private Set<String> scanClasspath(final Collection<URL> urls, final ExecutorService executor,
+    final Set<String> modelTypeNames) {
+    if (isReadingClassFiles()) {
+      return new ClassFileScanner(buildPackagePredicates(), discoveries, relevantAnnotationNames, executor).scan(
+        urls, modelTypeNames);
+    }
+    ConfigurationBuilder cb = new ConfigurationBuilder().setUrls(urls);
     //cb = cb.setScanners(new Annotation());
     cb = cb.filterInputsBy(buildPackagePredicates());
-    Reflections reflections = new Reflections(cb);
-    return reflections.getTypesAnnotatedWith(Entity.class);
+    if (executor != null) {
+      cb = cb.setExecutorService(executor);
+    }
+    return findAnnotatedTypeNames(new Reflections(cb), modelTypeNames);
+  }
+
+  /**
+   * Reflections only indexes class annotations and super types, other discovery strategies need the class files.
+   */
+  private boolean isReadingClassFiles() {
+    return Boolean.TRUE.equals(options.getScanClassFiles()) || !discoveries.isAnnotationBased();
+  }
+
+  /**
+   * @return whether model classes are only discovered by {@code javax.persistence.Entity}, like the annotation
+   * processors do
+   * @see ModelClassDiscoveries#isEntityBased()
+   */
+  boolean isEntityBased() {
+    return discoveries.isEntityBased();
+  }
+
+  /**
+   * Looks up the classes annotated with a model annotation and their sub classes by name, neither the annotations nor
+   * the classes are loaded.
+   *
+   * @param modelTypeNames names of model types outside the scanned URLs, their sub classes are model classes too
+   */
+  private Set<String> findAnnotatedTypeNames(final Reflections reflections, final Set<String> modelTypeNames) {
+    Iterable<String> annotated = reflections.getStore().get(TypeAnnotationsScanner.class.getSimpleName(),
+      discoveries.getModelAnnotationNames());
+    Set<String> classNames = Sets.newHashSet(annotated);
+    Iterables.addAll(classNames, reflections.getStore().getAll(SubTypesScanner.class.getSimpleName(),
+      Iterables.concat(annotated, modelTypeNames)));
+    return classNames;
+  }
+
+  private int getScannerParallelism() {
+    Integer parallelism = options.getScannerParallelism();
+    if (parallelism == null) {
+      return 1;
+    }
+    return parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+  }
+
+  private Set<String> scanClasspath(final Collection<URL> urls, final ScanCache scanCache) {
+    final Predicate<String> packagePredicates = buildPackagePredicates();
+    return scanCache.findClassNames(urls, new ScanCache.UrlScanner() {
+      @Override
+      public Map<String, Boolean> scan(final URL url, final Set<String> modelTypeNames) {
+        Set<String> indexedClassNames = findIndexedClassNames(url);
+        if (indexedClassNames != null) {
+          return Maps.asMap(indexedClassNames, Functions.constant(Boolean.TRUE));
+        }
+        if (isReadingClassFiles()) {
+          return new ClassFileScanner(packagePredicates, discoveries, relevantAnnotationNames, null).findModelTypes(
+            Collections.singleton(url), modelTypeNames);
+        }
+        ConfigurationBuilder cb = new ConfigurationBuilder().setUrls(url).filterInputsBy(packagePredicates);
+        return Maps.asMap(findAnnotatedTypeNames(new Reflections(cb), modelTypeNames), Functions.constant(
+          Boolean.TRUE));
+      }
+    });
+  }
+
+  private Set<Class<?>> loadClasses(final Set<String> classNames) {
+    Set<Class<?>> classes = Sets.newHashSet();
+    for (String className : classNames) {
+      Class<?> clazz = ReflectionUtils.forName(className, ClasspathHelper.classLoaders());
+      if (clazz != null) {
+        classes.add(clazz);
+      }
+    }
+    return classes;
+  }
+
+  /**
+   * @param url classpath URL
+   * @return names of the model classes in the index of the jar or directory or {@code null} if the index isn't used,
+   * there is none or it doesn't cover the configured model classes
+   */
+  private Set<String> findIndexedClassNames(final URL url) {
+    if (!Boolean.TRUE.equals(options.getUseConstraintIndex())) {
+      return null;
+    }
+    ConstraintIndex index;
+    try {
+      index = ConstraintIndex.read(url);
+    } catch (IOException e) {
+      logger.warn("Cannot read constraint index of '" + url + "', scanning it instead.", e);
+      return null;
+    }
+    if (index == null) {
+      return null;
+    }
+    if (!discoveries.isEntityBased()) {
+      logger.warn("Ignoring constraint index of '{}', it only records entities but other model classes are configured, "
+        + "scanning it instead.", url);
+      return null;
+    }
+    Predicate<String> packagePredicates = buildPackagePredicates();
+    Set<String> classNames = Sets.newHashSet();
+    for (String className : index.getClassNames()) {
+      // the predicates operate on class file names
+      if (packagePredicates.apply(className + ".class")) {
+        classNames.add(className);
+      }
+    }
+    logger.info("Took {} classes to parse from constraint index of '{}'.", classNames.size(), url);
+    return classNames;
+  }
+
+  private Set<String> getConstraintAnnotationNames() {
+    Set<String> names = Sets.newHashSet(options.getCustomAnnotationClasses());
+    for (BuiltInConstraint constraint : BuiltInConstraint.values()) {
+      names.add(constraint.getBeanValidationAnnotation().getName());
+    }
+    return names;
+  }
+
+  private boolean hasModelPackages() {
+    for (String packageName : options.getModelPackages()) {
+      if (StringUtils.isNotEmpty(packageName)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   private Collection<URL> buildClassLoaderUrls() {
@@ -56,15 +276,6 @@ public class ClasspathScanner {
   }
 
   private Predicate<String> buildPackagePredicates() {
-    FilterBuilder filterBuilder = new FilterBuilder();
-    // Include package names
-    for (String packageName : options.getModelPackages()) {
-      filterBuilder.include(FilterBuilder.prefix(packageName));
-    }
-    // Exclude class names
-    for (String excludedClassName : options.getExcludedClasses()) {
-      filterBuilder.exclude("^" + StringUtils.replace(excludedClassName, ".", "\\.") + "\\.class$");
-    }
-    return filterBuilder;
+    return new ClassNameFilter(options.getModelPackages(), options.getExcludedClasses());
   }
 }
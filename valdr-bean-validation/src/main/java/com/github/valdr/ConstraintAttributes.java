@@ -12,52 +12,44 @@ import javax.validation.constraints.Past;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 import org.hibernate.validator.constraints.Email;
-import com.github.valdr.thirdparty.spring.AnnotationUtils;
+import com.google.common.collect.Maps;
 
 /**
  * All attributes of a constraint (i.e. Bean Validation annotation attributes).
  */
 public class ConstraintAttributes implements MinimalObjectMap {
 
-  private final Map<String, Object> map = new HashMap<>();
+  private final Map<String, Object> map;
 
   /**
    * Constructor.
    *
    * @param annotation annotation which is queried for attributes
+   * @param fieldType  type of the annotated field
    */
   public ConstraintAttributes(final Annotation annotation, final Class fieldType) {
-    Map<String, Object> annotationAttributes = AnnotationUtils.getAnnotationAttributes(annotation);
+    AnnotationAttributeReader reader = AnnotationAttributeReader.forType(annotation.annotationType());
+    map = Maps.newHashMapWithExpectedSize(reader.size());
+    reader.readInto(annotation, map);
     //Reescrever com a localização das mensagens
-    if (annotationAttributes.get("message") != null && annotationAttributes.get("message") instanceof String) {
-        String msg = (String) annotationAttributes.get("message");
-        if (msg.startsWith("{javax.validation.constraints.") || msg.startsWith("{org.hibernate.validator.constraints")) {
-            if (annotation instanceof NotNull) {
-                annotationAttributes.put("message", "Campo obrigatório");
-            } else if (annotation instanceof Size) {
-                Size s = (Size) annotation;
-                if (String.class.isAssignableFrom(fieldType)) {
-                    annotationAttributes.put("message", String.format("Campo deve possuir tamanho entre %d e %d caracteres", s.min(), s.max()));
-                }
-                if (Collection.class.isAssignableFrom(fieldType)) {
-                    annotationAttributes.put("message", String.format("Coleção deve conter entre %d e %d elementos", s.min(), s.max()));
-                }
-            } else if (annotation instanceof Email) {
-                annotationAttributes.put("message", "Endereço de email inválido");
-            } else if (annotation instanceof Past) {
-                annotationAttributes.put("message", "Data não pode ser no futuro");
-            } else if (annotation instanceof Future) {
-                annotationAttributes.put("message", "Data não pode ser no passado");
-            } else if (annotation instanceof Pattern) {
-                annotationAttributes.put("message", String.format("Campo deve ser preenchido no formato: %s", ((Pattern) annotation).regexp()));
-            }
-
-
-        }
-    }
+    localizeMessage(annotation.annotationType().getName(), map, String.class.isAssignableFrom(fieldType),
+      Collection.class.isAssignableFrom(fieldType));
+  }
 
-    removeUnusedAttributes(annotationAttributes);
-    map.putAll(annotationAttributes);
+  /**
+   * Constructor for attributes which were read without reflection, e.g. by an annotation processor at compile time.
+   *
+   * @param annotationClassName  fully qualified name of the annotation class
+   * @param annotationAttributes all attributes of the annotation including those with default values
+   * @param stringField          whether the annotated field is a {@link String}
+   * @param collectionField      whether the annotated field is a {@link Collection}
+   */
+  public ConstraintAttributes(final String annotationClassName, final Map<String, Object> annotationAttributes,
+                              final boolean stringField, final boolean collectionField) {
+    map = new HashMap<>(annotationAttributes);
+    //Reescrever com a localização das mensagens
+    localizeMessage(annotationClassName, map, stringField, collectionField);
+    removeUnusedAttributes(map);
   }
 
   @Override
@@ -75,11 +67,39 @@ public class ConstraintAttributes implements MinimalObjectMap {
     return map.put(key, value);
   }
 
+  private void localizeMessage(final String annotationClassName, final Map<String, Object> annotationAttributes,
+                               final boolean stringField, final boolean collectionField) {
+    if (annotationAttributes.get("message") != null && annotationAttributes.get("message") instanceof String) {
+        String msg = (String) annotationAttributes.get("message");
+        if (msg.startsWith("{javax.validation.constraints.") || msg.startsWith("{org.hibernate.validator.constraints")) {
+            if (NotNull.class.getName().equals(annotationClassName)) {
+                annotationAttributes.put("message", "Campo obrigatório");
+            } else if (Size.class.getName().equals(annotationClassName)) {
+                Object min = annotationAttributes.get("min");
+                Object max = annotationAttributes.get("max");
+                if (stringField) {
+                    annotationAttributes.put("message", String.format("Campo deve possuir tamanho entre %d e %d caracteres", min, max));
+                }
+                if (collectionField) {
+                    annotationAttributes.put("message", String.format("Coleção deve conter entre %d e %d elementos", min, max));
+                }
+            } else if (Email.class.getName().equals(annotationClassName)) {
+                annotationAttributes.put("message", "Endereço de email inválido");
+            } else if (Past.class.getName().equals(annotationClassName)) {
+                annotationAttributes.put("message", "Data não pode ser no futuro");
+            } else if (Future.class.getName().equals(annotationClassName)) {
+                annotationAttributes.put("message", "Data não pode ser no passado");
+            } else if (Pattern.class.getName().equals(annotationClassName)) {
+                annotationAttributes.put("message", String.format("Campo deve ser preenchido no formato: %s", annotationAttributes.get("regexp")));
+            }
+        }
+    }
+  }
+
   private void removeUnusedAttributes(final Map<String, Object> annotationAttributes) {
     Iterator<String> it = annotationAttributes.keySet().iterator();
     while (it.hasNext()) {
-      String key = it.next();
-      if ("groups".equals(key) || "payload".equals(key)) {
+      if (AnnotationAttributeReader.isUnusedAttribute(it.next())) {
         it.remove();
       }
     }
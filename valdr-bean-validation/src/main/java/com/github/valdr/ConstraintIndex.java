@@ -0,0 +1,115 @@
+package com.github.valdr;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Enumeration;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.apache.commons.io.IOUtils;
+import com.google.common.base.Charsets;
+
+/**
+ * Build-time index of model classes. The index is written at compile time by the annotation processor of the
+ * valdr-bean-validation-processor module and allows the {@link ClasspathScanner} to skip scanning the jar or directory
+ * containing it at runtime. Each line of the index contains a fully qualified class name:
+ * <pre>
+ * com.company.model.Person
+ * </pre>
+ */
+public final class ConstraintIndex {
+  /**
+   * Classpath location of the index.
+   */
+  public static final String RESOURCE_NAME = "META-INF/valdr/index";
+
+  private final SortedSet<String> classNames = new TreeSet<>();
+
+  /**
+   * Adds a class to the index.
+   *
+   * @param className fully qualified (binary) class name
+   */
+  public void add(final String className) {
+    classNames.add(className);
+  }
+
+  /**
+   * @return fully qualified names of all indexed classes, sorted
+   */
+  public SortedSet<String> getClassNames() {
+    return new TreeSet<>(classNames);
+  }
+
+  /**
+   * @return whether the index contains any class
+   */
+  public boolean isEmpty() {
+    return classNames.isEmpty();
+  }
+
+  /**
+   * Writes the index in a stable order such that builds are reproducible.
+   *
+   * @param writer target, not closed by this method
+   * @throws IOException if writing fails
+   */
+  public void write(final Writer writer) throws IOException {
+    writer.write("# valdr Bean Validation constraint index, generated - do not edit\n");
+    for (String className : classNames) {
+      writer.write(className + "\n");
+    }
+  }
+
+  /**
+   * Reads and merges all index resources visible to the passed class loader.
+   *
+   * @param classLoader class loader to query for {@link #RESOURCE_NAME}
+   * @return the merged index or {@code null} if there is no index in the classpath
+   * @throws IOException if an index resource cannot be read
+   */
+  public static ConstraintIndex read(final ClassLoader classLoader) throws IOException {
+    Enumeration<URL> resources = classLoader.getResources(RESOURCE_NAME);
+    if (!resources.hasMoreElements()) {
+      return null;
+    }
+    ConstraintIndex index = new ConstraintIndex();
+    while (resources.hasMoreElements()) {
+      InputStream inputStream = resources.nextElement().openStream();
+      try {
+        index.readFrom(new BufferedReader(new InputStreamReader(inputStream, Charsets.UTF_8)));
+      } finally {
+        IOUtils.closeQuietly(inputStream);
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Reads the index of a single jar or directory.
+   *
+   * @param classpathUrl URL of the jar or directory
+   * @return the index or {@code null} if the jar or directory doesn't contain one
+   * @throws IOException if the index cannot be read
+   */
+  public static ConstraintIndex read(final URL classpathUrl) throws IOException {
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classpathUrl}, null)) {
+      return read(classLoader);
+    }
+  }
+
+  private void readFrom(final BufferedReader reader) throws IOException {
+    String line;
+    while ((line = reader.readLine()) != null) {
+      String trimmed = line.trim();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+        continue;
+      }
+      add(trimmed);
+    }
+  }
+}
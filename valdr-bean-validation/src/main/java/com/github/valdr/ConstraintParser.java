@@ -1,36 +1,93 @@
 package com.github.valdr;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import lombok.SneakyThrows;
+import org.apache.commons.lang3.ClassUtils;
 import org.reflections.ReflectionUtils;
+import org.reflections.util.ClasspathHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.module.SimpleModule;
-import com.github.valdr.serializer.MinimalMapSerializer;
+import com.github.valdr.decorator.DecoratorFactories;
+import com.github.valdr.serializer.SerializationContext;
+import com.google.common.base.Charsets;
 import com.google.common.base.Function;
-import com.google.common.collect.Iterables;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+import com.google.common.io.Resources;
 
 /**
  * Parses classes in defined packages for supported <a href="http://beanvalidation.org/">Bean Validation (JSR 303)</a>
  * annotations ({@code javax.validation.*}) and configured custom annotations. The parsing result is a
  * JSON string that complies with the document specified by <a href="https://github.com/netceteragroup/valdr">valdr</a>.
+ * Classes are sorted by their output name in the resulting document. Depending on {@link
+ * Options#getParserParallelism()} classes are parsed sequentially or fanned out over a {@link ForkJoinPool}, which the
+ * parser keeps until it's {@link #shutdown() shut down}; the result is the same either way. The document can be
+ * streamed to an {@link OutputStream} or a {@link JsonGenerator} class by class rather than being built as a whole. In
+ * incremental mode (see {@link Options#getIncrementalParsing()}) the parser keeps the constraints of each class across
+ * runs and only extracts those of classes whose bytecode changed. Unless disabled (see {@link
+ * Options#getSharedConstraintCache()}) the constraints extracted from a class are shared by all parsers in the JVM.
+ * <p>
+ * If enabled (see {@link Options#getUsePrecompiledRules()}) and the classpath contains exactly one document generated
+ * at compile time by the annotation processor of the valdr-bean-validation-processor module (see
+ * {@link #PRECOMPILED_RULES_RESOURCE}) that document is returned instead and no model class is parsed at all.
+ * </p>
  *
  * @see BuiltInConstraint
  * @see Options
  */
 public class ConstraintParser {
+  /**
+   * Classpath location of the validation rules document generated at compile time.
+   */
+  public static final String PRECOMPILED_RULES_RESOURCE = "META-INF/valdr/constraints.json";
+
+  private static final Ordering<Class<?>> CLASS_NAME_ORDERING = Ordering.natural().nullsFirst().onResultOf(
+    new Function<Class<?>, String>() {
+      @Override
+      public String apply(final Class<?> clazz) {
+        return clazz == null ? null : clazz.getName();
+      }
+    });
+
+  private static final int PENDING_TASKS_PER_THREAD = 4;
+
   private final Logger logger = LoggerFactory.getLogger(ConstraintParser.class);
 
   private final ClasspathScanner classpathScanner;
-  private final Iterable<Class<? extends Annotation>> allRelevantAnnotationClasses;
+  private final RelevantAnnotations relevantAnnotations;
   private final Options options;
+  private final SerializationContext serializationContext;
+  private final ExtractedConstraintsCache extractedConstraintsCache;
+  private ForkJoinPool pool;
+  private int poolUsers;
+  private boolean shutdown;
+  private final SharedConstraintCache sharedConstraintCache;
 
   /**
    * Constructor.
@@ -39,67 +96,448 @@ public class ConstraintParser {
    */
   public ConstraintParser(final Options options) {
     this.options = options;
-    this.classpathScanner = new ClasspathScanner(options);
-    allRelevantAnnotationClasses = Iterables.concat(BuiltInConstraint.getAllBeanValidationAnnotations(),
-      getConfiguredCustomAnnotations());
+    this.serializationContext = SerializationContext.forOptions(options);
+    relevantAnnotations = new RelevantAnnotations(getConfiguredCustomAnnotations(), new DecoratorFactories(
+      ClasspathHelper.classLoaders()[0]));
+    this.extractedConstraintsCache = Boolean.TRUE.equals(options.getIncrementalParsing()) ? new
+      ExtractedConstraintsCache(relevantAnnotations.getClasses()) : null;
+    this.sharedConstraintCache = Boolean.FALSE.equals(options.getSharedConstraintCache()) ? null : new
+      SharedConstraintCache(relevantAnnotations, options.getExcludedFields());
+    Set<String> relevantAnnotationNames = new HashSet<>();
+    for (Class<? extends Annotation> annotationClass : relevantAnnotations.getAnnotationClasses()) {
+      relevantAnnotationNames.add(annotationClass.getName());
+    }
+    this.classpathScanner = new ClasspathScanner(options, relevantAnnotationNames);
   }
 
   /**
    * Based on the configuration passed to the constructor model classes are parsed for constraints.
    *
    * @return JSON string for <a href="https://github.com/netceteragroup/valdr">valdr</a>
- * @throws SecurityException
- * @throws NoSuchMethodException
- * @throws InvocationTargetException
- * @throws IllegalArgumentException
- * @throws IllegalAccessException
- * @throws InstantiationException
- * @throws JsonProcessingException
+   * @throws SecurityException
+   * @throws NoSuchMethodException
+   * @throws InvocationTargetException
+   * @throws IllegalArgumentException
+   * @throws IllegalAccessException
+   * @throws InstantiationException
+   * @throws JsonProcessingException
+   * @see Options#getUsePrecompiledRules()
    */
+  @SneakyThrows(IOException.class)
   public String parse() throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, JsonProcessingException {
-    Map<String, ClassConstraints> classNameToValidationRulesMap = new HashMap<>();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    parse(outputStream);
+    return new String(outputStream.toByteArray(), Charsets.UTF_8);
+  }
+
+  /**
+   * Like {@link #parse()} but writes the UTF-8 encoded JSON document to the passed stream. The constraints of each
+   * class are written as soon as they are extracted, i.e. the document is never held in memory as a whole. The stream
+   * is not closed.
+   *
+   * @param outputStream stream the document is written to
+   * @throws SecurityException
+   * @throws NoSuchMethodException
+   * @throws InvocationTargetException
+   * @throws IllegalArgumentException
+   * @throws IllegalAccessException
+   * @throws InstantiationException
+   * @throws IOException if writing to the stream fails
+   */
+  public void parse(final OutputStream outputStream) throws InstantiationException, IllegalAccessException,
+    IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, IOException {
+    parseWithPackageNames(outputStream);
+  }
 
-    for (Class clazz : classpathScanner.findClassesToParse()) {
+  /**
+   * Like {@link #parse(OutputStream)} but also tells the packages of the classes in the document, which are known
+   * from the scan anyway.
+   *
+   * @param outputStream stream the document is written to
+   * @return names of the packages (the empty string for the default package) per name under which classes appear in
+   * the document (see {@link Options#getOutputFullTypeName()}), several if classes of different packages share a
+   * simple name, or {@code null} if the document was generated at compile time and the packages are unknown
+   * @throws SecurityException
+   * @throws NoSuchMethodException
+   * @throws InvocationTargetException
+   * @throws IllegalArgumentException
+   * @throws IllegalAccessException
+   * @throws InstantiationException
+   * @throws IOException if writing to the stream fails
+   */
+  SortedMap<String, SortedSet<String>> parseWithPackageNames(final OutputStream outputStream) throws
+    InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException,
+    NoSuchMethodException, SecurityException, IOException {
+    URL precompiledRules = findPrecompiledRules();
+    if (precompiledRules != null) {
+      Resources.copy(precompiledRules, outputStream);
+      return null;
+    }
+    try (JsonGenerator generator = serializationContext.createGenerator(outputStream)) {
+      return writeClasses(generator);
+    }
+  }
+
+  /**
+   * Like {@link #parse(OutputStream)} but writes the document in the passed format. Validation rules generated at
+   * compile time are transcoded into the format.
+   *
+   * @param outputStream stream the document is written to
+   * @param format       format of the document
+   * @throws SecurityException
+   * @throws NoSuchMethodException
+   * @throws InvocationTargetException
+   * @throws IllegalArgumentException
+   * @throws IllegalAccessException
+   * @throws InstantiationException
+   * @throws IOException if writing to the stream fails
+   */
+  public void parse(final OutputStream outputStream, final OutputFormat format) throws InstantiationException,
+    IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException,
+    SecurityException, IOException {
+    if (format == OutputFormat.JSON) {
+      parse(outputStream);
+      return;
+    }
+    try (JsonGenerator generator = serializationContext.createGenerator(outputStream, format)) {
+      parse(generator);
+    }
+  }
+
+  /**
+   * Like {@link #parse()} but writes the JSON document to the passed generator, which is neither flushed nor closed.
+   * The constraints of each class are written as soon as they are extracted. The generator defines the output format
+   * and style, {@link Options#getOutputStyle()} is ignored.
+   *
+   * @param generator generator the document is written to
+   * @throws SecurityException
+   * @throws NoSuchMethodException
+   * @throws InvocationTargetException
+   * @throws IllegalArgumentException
+   * @throws IllegalAccessException
+   * @throws InstantiationException
+   * @throws IOException if writing to the generator fails
+   */
+  public void parse(final JsonGenerator generator) throws InstantiationException, IllegalAccessException,
+    IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, IOException {
+    URL precompiledRules = findPrecompiledRules();
+    if (precompiledRules != null) {
+      try (JsonParser parser = SerializationContext.getObjectMapper().getFactory().createParser(precompiledRules)) {
+        parser.nextToken();
+        generator.copyCurrentStructure(parser);
+      }
+      return;
+    }
+    writeClasses(generator);
+  }
+
+  /**
+   * @return the validation rules document generated at compile time or {@code null} if it isn't used, there is none,
+   * it's ambiguous or it doesn't cover the configured model classes
+   */
+  private URL findPrecompiledRules() {
+    if (!Boolean.TRUE.equals(options.getUsePrecompiledRules())) {
+      return null;
+    }
+    ClassLoader[] classLoaders = ClasspathHelper.classLoaders();
+    if (classLoaders.length == 0) {
+      return null;
+    }
+    try {
+      Enumeration<URL> resources = classLoaders[0].getResources(PRECOMPILED_RULES_RESOURCE);
+      if (!resources.hasMoreElements()) {
+        return null;
+      }
+      URL resource = resources.nextElement();
+      if (resources.hasMoreElements()) {
+        // each document only covers the model classes of the module it was generated in
+        logger.warn("Found several validation rules documents generated at compile time, '{}' and '{}' among them, "
+          + "parsing the model classes instead.", resource, resources.nextElement());
+        return null;
+      }
+      if (!classpathScanner.isEntityBased()) {
+        logger.warn("Ignoring validation rules generated at compile time from '{}', they only cover entities but other "
+          + "model classes are configured, parsing the model classes instead.", resource);
+        return null;
+      }
+      logger.info("Using validation rules generated at compile time from '{}'.", resource);
+      return resource;
+    } catch (IOException e) {
+      logger.warn("Cannot look up validation rules generated at compile time, parsing the model classes instead.", e);
+      return null;
+    }
+  }
+
+  /**
+   * @return names of the packages per output name, see {@link #parseWithPackageNames(OutputStream)}
+   */
+  private SortedMap<String, SortedSet<String>> writeClasses(final JsonGenerator generator) throws
+    InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException,
+    NoSuchMethodException, SecurityException, IOException {
+    // sorted by output name, classes with the same output name in class name order such that the output is stable
+    // across runs
+    long start = System.nanoTime();
+    ScanCache scanCache = ScanCache.open(options, relevantAnnotations);
+    Set<Class<?>> classesToParse = classpathScanner.findClassesToParse(scanCache);
+    long scanned = System.nanoTime();
+    logger.info("Found {} model classes in {} ms.", classesToParse.size(), TimeUnit.NANOSECONDS.toMillis(scanned
+      - start));
+    SortedMap<String, List<Class<?>>> classesByOutputName = new TreeMap<>();
+    SortedMap<String, SortedSet<String>> packageNamesByOutputName = new TreeMap<>();
+    for (Class<?> clazz : CLASS_NAME_ORDERING.sortedCopy(classesToParse)) {
       if (clazz != null) {
-        ClassConstraints classValidationRules = new AnnotatedClass(clazz, options.getExcludedFields(),
-          allRelevantAnnotationClasses).extractValidationRules();
-        if (classValidationRules.size() > 0) {
-          String name = options.getOutputFullTypeName() ? clazz.getName() : clazz.getSimpleName();
-          classNameToValidationRulesMap.put(name, classValidationRules);
+        String name = options.getOutputFullTypeName() ? clazz.getName() : clazz.getSimpleName();
+        List<Class<?>> classes = classesByOutputName.get(name);
+        if (classes == null) {
+          classes = new ArrayList<>(1);
+          classesByOutputName.put(name, classes);
+          packageNamesByOutputName.put(name, new TreeSet<String>());
         }
+        classes.add(clazz);
+        packageNamesByOutputName.get(name).add(ClassUtils.getPackageName(clazz));
       }
     }
+    if (scanCache != null && writeCachedRules(generator, scanCache)) {
+      return packageNamesByOutputName;
+    }
 
-    return toJson(classNameToValidationRulesMap);
+    // the constraints are streamed into the scan cache alongside the document if the cache is going to be updated
+    ScanCache rulesCache = scanCache != null && scanCache.startStore(classesToParse) ? scanCache : null;
+    try {
+      if (extractedConstraintsCache != null) {
+        extractedConstraintsCache.startRun();
+      }
+      generator.writeStartObject();
+      if (getParallelism() > 1) {
+        writeInParallel(generator, classesByOutputName, rulesCache);
+      } else {
+        writeSequentially(generator, classesByOutputName, rulesCache);
+      }
+      generator.writeEndObject();
+      if (extractedConstraintsCache != null) {
+        extractedConstraintsCache.finishRun();
+      }
+      logger.info("Extracted and serialized constraints of {} model classes in {} ms.", classesToParse.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scanned));
+      if (rulesCache != null) {
+        rulesCache.finishStore();
+      }
+    } finally {
+      if (rulesCache != null) {
+        rulesCache.abortStore();
+      }
+    }
+    return packageNamesByOutputName;
   }
 
-  @SneakyThrows(IOException.class)
-  private String toJson(final Map<String, ClassConstraints> classNameToValidationRulesMap) throws JsonProcessingException {
-    ObjectMapper objectMapper = new ObjectMapper();
+  /**
+   * Copies the constraints stored in the scan cache if none of the scanned classpath URLs changed since.
+   *
+   * @return whether the cached constraints were written
+   */
+  private boolean writeCachedRules(final JsonGenerator generator, final ScanCache scanCache) throws IOException {
+    try (JsonParser parser = scanCache.openRules()) {
+      if (parser == null) {
+        return false;
+      }
+      parser.nextToken();
+      generator.copyCurrentStructure(parser);
+    }
+    logger.info("Using validation rules from scan cache, no classpath URL changed.");
+    return true;
+  }
 
-    SimpleModule module = new SimpleModule();
-    module.addSerializer(MinimalMap.class, new MinimalMapSerializer());
-    objectMapper.registerModule(module);
+  private int getParallelism() {
+    Integer parallelism = options.getParserParallelism();
+    if (parallelism == null) {
+      return 1;
+    }
+    return parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+  }
 
-    ObjectWriter ow = objectMapper.writer().withDefaultPrettyPrinter();
-    return ow.writeValueAsString(classNameToValidationRulesMap);
+  /**
+   * @param rulesCache receives the written constraints, may be {@code null}
+   */
+  private void writeSequentially(final JsonGenerator generator, final SortedMap<String, List<Class<?>>>
+    classesByOutputName, final ScanCache rulesCache) throws InstantiationException, IllegalAccessException,
+    IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, IOException {
+    for (Map.Entry<String, List<Class<?>>> entry : classesByOutputName.entrySet()) {
+      write(generator, entry.getKey(), extractValidationRules(entry.getValue()), rulesCache);
+    }
   }
 
-  private Iterable<? extends Class<? extends Annotation>> getConfiguredCustomAnnotations() {
-    return Iterables.transform(options.getCustomAnnotationClasses(), new Function<String,
-      Class<? extends Annotation>>() {
-      @Override
-      @SuppressWarnings("unchecked")
-      public Class<? extends Annotation> apply(final String className) {
-        Class<?> validatorClass = ReflectionUtils.forName(className);
-        if (validatorClass.isAnnotation()) {
-          return (Class<? extends Annotation>) validatorClass;
-        } else {
-          logger.warn("The configured custom annotation class '{}' is not an annotation. It will be ignored.",
-            validatorClass);
-          return null;
+  /**
+   * Extracts the constraints on a {@link ForkJoinPool} but writes them in order. At most
+   * {@value #PENDING_TASKS_PER_THREAD} tasks per thread are submitted ahead of the class being written such that the
+   * memory held by extracted but not yet written constraints doesn't depend on the number of classes.
+   *
+   * @param rulesCache receives the written constraints, may be {@code null}
+   */
+  private void writeInParallel(final JsonGenerator generator, final SortedMap<String, List<Class<?>>>
+    classesByOutputName, final ScanCache rulesCache) throws InstantiationException, IllegalAccessException,
+    IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, IOException {
+    int parallelism = getParallelism();
+    ForkJoinPool pool = acquirePool(parallelism);
+    Deque<Map.Entry<String, Future<ClassConstraints>>> pending = new ArrayDeque<>();
+    try {
+      for (Map.Entry<String, List<Class<?>>> entry : classesByOutputName.entrySet()) {
+        final List<Class<?>> classes = entry.getValue();
+        Future<ClassConstraints> future = pool.submit(new Callable<ClassConstraints>() {
+          @Override
+          public ClassConstraints call() throws Exception {
+            return extractValidationRules(classes);
+          }
+        });
+        pending.add(Maps.immutableEntry(entry.getKey(), future));
+        if (pending.size() > parallelism * PENDING_TASKS_PER_THREAD) {
+          writePending(generator, pending.poll(), rulesCache);
         }
       }
-    });
+      while (!pending.isEmpty()) {
+        writePending(generator, pending.poll(), rulesCache);
+      }
+    } finally {
+      // only left over if writing failed
+      for (Map.Entry<String, Future<ClassConstraints>> entry : pending) {
+        entry.getValue().cancel(true);
+      }
+      releasePool();
+    }
+  }
+
+  /**
+   * The pool is created on first use and kept for subsequent parses until the parser is shut down.
+   */
+  private synchronized ForkJoinPool acquirePool(final int parallelism) {
+    if (pool == null) {
+      pool = new ForkJoinPool(parallelism);
+    }
+    poolUsers++;
+    return pool;
+  }
+
+  private synchronized void releasePool() {
+    poolUsers--;
+    if (shutdown && poolUsers == 0) {
+      shutdownPool();
+    }
+  }
+
+  private void shutdownPool() {
+    if (pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+  }
+
+  /**
+   * Releases the threads which parse the model classes in parallel (see {@link Options#getParserParallelism()}).
+   * Parses already running are completed first. The parser remains usable, but later parses no longer keep their
+   * threads once they're done.
+   */
+  public synchronized void shutdown() {
+    shutdown = true;
+    if (poolUsers == 0) {
+      shutdownPool();
+    }
+  }
+
+  private void writePending(final JsonGenerator generator, final Map.Entry<String, Future<ClassConstraints>> pending,
+    final ScanCache rulesCache) throws InstantiationException, IllegalAccessException, InvocationTargetException,
+    NoSuchMethodException, IOException {
+    write(generator, pending.getKey(), getResult(pending.getValue()), rulesCache);
+  }
+
+  private void write(final JsonGenerator generator, final String name, final ClassConstraints classConstraints,
+    final ScanCache rulesCache) throws IOException {
+    if (classConstraints != null) {
+      if (rulesCache != null) {
+        rulesCache.storeRules(name, classConstraints, serializationContext);
+      }
+      generator.writeFieldName(name);
+      serializationContext.writeValue(generator, classConstraints);
+    }
+  }
+
+  /**
+   * Extracts the constraints of classes sharing the same output name. As the last of them wins the constraints of the
+   * others are dropped right away.
+   *
+   * @return constraints of the last class having any or null if there is none
+   */
+  private ClassConstraints extractValidationRules(final List<Class<?>> classes) throws InstantiationException,
+    IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException,
+    SecurityException {
+    for (int i = classes.size() - 1; i >= 0; i--) {
+      ClassConstraints classConstraints = extractValidationRules(classes.get(i));
+      if (classConstraints != null && classConstraints.size() > 0) {
+        return classConstraints;
+      }
+    }
+    return null;
+  }
+
+  private ClassConstraints extractValidationRules(final Class<?> clazz) throws InstantiationException,
+    IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException,
+    SecurityException {
+    if (clazz == null) {
+      return null;
+    }
+    if (extractedConstraintsCache == null) {
+      return extractShared(clazz);
+    }
+    extractedConstraintsCache.use(clazz.getName());
+    String hash = extractedConstraintsCache.hash(clazz);
+    ClassConstraints classConstraints = extractedConstraintsCache.get(clazz.getName(), hash);
+    if (classConstraints == null) {
+      classConstraints = extractShared(clazz);
+      extractedConstraintsCache.put(clazz.getName(), hash, classConstraints);
+    }
+    return classConstraints;
+  }
+
+  /**
+   * Extracts the constraints of a class unless another parser in the JVM already did, see {@link
+   * SharedConstraintCache}.
+   */
+  private ClassConstraints extractShared(final Class<?> clazz) throws InstantiationException,
+    IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException,
+    SecurityException {
+    if (sharedConstraintCache != null) {
+      return sharedConstraintCache.get(clazz);
+    }
+    return new AnnotatedClass(clazz, options.getExcludedFields(), relevantAnnotations).extractValidationRules();
+  }
+
+  private ClassConstraints getResult(final Future<ClassConstraints> future) throws InstantiationException,
+    IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while parsing model classes.", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.propagateIfInstanceOf(cause, InstantiationException.class);
+      Throwables.propagateIfInstanceOf(cause, IllegalAccessException.class);
+      Throwables.propagateIfInstanceOf(cause, InvocationTargetException.class);
+      Throwables.propagateIfInstanceOf(cause, NoSuchMethodException.class);
+      throw Throwables.propagate(cause);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Class<? extends Annotation>> getConfiguredCustomAnnotations() {
+    List<Class<? extends Annotation>> customAnnotations = new ArrayList<>();
+    for (String className : options.getCustomAnnotationClasses()) {
+      Class<?> validatorClass = ReflectionUtils.forName(className);
+      if (validatorClass != null && validatorClass.isAnnotation()) {
+        customAnnotations.add((Class<? extends Annotation>) validatorClass);
+      } else {
+        logger.warn("The configured custom annotation class '{}' is not an annotation. It will be ignored.",
+          className);
+      }
+    }
+    return customAnnotations;
   }
 }
@@ -0,0 +1,135 @@
+package com.github.valdr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * HTTP content codings in which {@link ValidationRulesServlet} can send the validation rules. The declaration order
+ * defines the preference among codings the client accepts with equal quality: compressed codings before identity,
+ * gzip before deflate as it is the more widely supported one.
+ */
+public enum ContentEncoding {
+  // CHECKSTYLE:OFF
+  GZIP("gzip") {
+    @Override
+    OutputStream wrap(final OutputStream outputStream) throws IOException {
+      return new GZIPOutputStream(outputStream) {
+        {
+          def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+      };
+    }
+  },
+  DEFLATE("deflate") {
+    @Override
+    OutputStream wrap(final OutputStream outputStream) {
+      return new DeflaterOutputStream(outputStream, new Deflater(Deflater.BEST_COMPRESSION));
+    }
+  },
+  IDENTITY("identity") {
+    @Override
+    OutputStream wrap(final OutputStream outputStream) {
+      return outputStream;
+    }
+  };
+  // CHECKSTYLE:ON
+
+  private final String token;
+
+  private ContentEncoding(final String token) {
+    this.token = token;
+  }
+
+  /**
+   * @return content coding token as used in the {@code Accept-Encoding} and {@code Content-Encoding} HTTP headers
+   */
+  public String getToken() {
+    return token;
+  }
+
+  /**
+   * Encodes the passed data with this content coding.
+   *
+   * @param data data to encode
+   * @return encoded data, the passed array itself for {@link #IDENTITY}
+   */
+  public byte[] encode(final byte[] data) {
+    if (this == IDENTITY) {
+      return data;
+    }
+    ByteArrayOutputStream encoded = new ByteArrayOutputStream(data.length / 4);
+    try (OutputStream outputStream = wrap(encoded)) {
+      outputStream.write(data);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot " + token + " encode data.", e);
+    }
+    return encoded.toByteArray();
+  }
+
+  abstract OutputStream wrap(OutputStream outputStream) throws IOException;
+
+  /**
+   * Selects the content coding preferred by the client according to the passed {@code Accept-Encoding} header value.
+   * The codings are ranked by their quality value, ties are resolved by declaration order. Identity is acceptable
+   * unless it's explicitly (or through {@code *}) excluded but, if not listed, it ranks below all listed codings. If no
+   * coding is acceptable identity is used anyway.
+   *
+   * @param acceptEncoding value of the {@code Accept-Encoding} request header, may be {@code null}
+   * @return negotiated content coding
+   */
+  public static ContentEncoding negotiate(final String acceptEncoding) {
+    if (StringUtils.isBlank(acceptEncoding)) {
+      return IDENTITY;
+    }
+    Float[] qualities = new Float[values().length];
+    Float wildcardQuality = null;
+    for (String element : StringUtils.split(acceptEncoding, ',')) {
+      String[] parts = StringUtils.split(element, ';');
+      if (parts.length == 0) {
+        continue;
+      }
+      String coding = parts[0].trim();
+      if ("*".equals(coding)) {
+        wildcardQuality = parseQuality(parts);
+      } else if ("x-gzip".equalsIgnoreCase(coding)) {
+        qualities[GZIP.ordinal()] = parseQuality(parts);
+      } else {
+        for (ContentEncoding contentEncoding : values()) {
+          if (contentEncoding.token.equalsIgnoreCase(coding)) {
+            qualities[contentEncoding.ordinal()] = parseQuality(parts);
+          }
+        }
+      }
+    }
+    ContentEncoding best = IDENTITY;
+    float bestQuality = 0;
+    for (ContentEncoding contentEncoding : values()) {
+      Float quality = qualities[contentEncoding.ordinal()];
+      if (quality == null) {
+        // identity is acceptable unless excluded but ranks below any coding the client explicitly asked for
+        quality = wildcardQuality != null ? wildcardQuality : contentEncoding == IDENTITY ? Float.MIN_VALUE : 0;
+      }
+      if (quality > bestQuality) {
+        best = contentEncoding;
+        bestQuality = quality;
+      }
+    }
+    return best;
+  }
+
+  private static float parseQuality(final String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String parameter = parts[i].trim();
+      if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+        return NumberUtils.toFloat(parameter.substring(2).trim(), 0);
+      }
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,252 @@
+package com.github.valdr;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Keeps the constraints extracted from model classes across parser runs, keyed by class name and a hash of the
+ * bytecode of the class and its super classes (the constraints of inherited fields are part of a class's
+ * constraints) as well as of the relevant annotations and their decorator factories (default attribute values are
+ * part of the constraints). A class whose bytecode didn't change since the previous run isn't extracted again, even if
+ * it was loaded by a new class loader, e.g. because the jar containing it was replaced. Classes whose bytecode cannot be
+ * read are always extracted.
+ * <p>
+ * A run is delimited by {@link #startRun()} and {@link #finishRun()}; entries of classes not {@link #use(String) used}
+ * during a run are dropped at its end. Within a run the bytecode of each class is read and hashed once, super classes
+ * shared by many model classes included. Across runs the bytecode of a class is only read again if the path, size or
+ * modification time of its class file (of its jar for classes in jars) changed. Lookups within a run may happen
+ * concurrently, runs must not overlap.
+ * </p>
+ */
+final class ExtractedConstraintsCache {
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+  // shorter than any hash, hence never equal to one
+  private static final HashCode UNREADABLE = HashCode.fromInt(0);
+
+  private final Logger logger = LoggerFactory.getLogger(ExtractedConstraintsCache.class);
+  private final Collection<Class<?>> dependencies;
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final Set<String> usedClassNames = Sets.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+  // hashes of the classes and their super classes of the current run, cleared afterwards to not keep any class
+  private final ConcurrentMap<Class<?>, HashCode> hashes = new ConcurrentHashMap<>();
+  // bytecode hashes by class name, reused as long as the class file (or its jar) has the same fingerprint
+  private final ConcurrentMap<String, BytecodeHash> bytecodeHashes = new ConcurrentHashMap<>();
+  private final AtomicInteger extracted = new AtomicInteger();
+  private HashCode dependenciesHash;
+
+  /**
+   * @param dependencies classes the constraints of every model class depend on, i.e. the relevant annotations and
+   *                     their decorator factories, see {@link RelevantAnnotations#getClasses()}
+   */
+  ExtractedConstraintsCache(final Collection<Class<?>> dependencies) {
+    this.dependencies = dependencies;
+    this.dependenciesHash = hashDependencies();
+  }
+
+  /**
+   * Starts a parser run.
+   */
+  void startRun() {
+    usedClassNames.clear();
+    hashes.clear();
+    extracted.set(0);
+    dependenciesHash = hashDependencies();
+  }
+
+  /**
+   * Finishes a parser run and drops the entries of the classes which weren't used in it.
+   */
+  void finishRun() {
+    Set<String> hashedClassNames = new HashSet<>();
+    for (Class<?> clazz : hashes.keySet()) {
+      hashedClassNames.add(clazz.getName());
+    }
+    hashes.clear();
+    bytecodeHashes.keySet().retainAll(Sets.union(hashedClassNames, dependencyNames()));
+    entries.keySet().retainAll(usedClassNames);
+    logger.info("Extracted constraints of {} changed model classes, reused those of {} unchanged ones.",
+      extracted.get(), usedClassNames.size() - extracted.get());
+  }
+
+  /**
+   * Marks a class as used in the current run, its entry is kept for the next run.
+   *
+   * @param className name of the model class
+   */
+  void use(final String className) {
+    usedClassNames.add(className);
+  }
+
+  /**
+   * @param clazz model class
+   * @return hash of the bytecode of the class, its super classes and the dependencies or {@code null} if any of them
+   * cannot be read
+   */
+  String hash(final Class<?> clazz) {
+    HashCode hash = hashWithSuperclasses(clazz);
+    if (hash == null || dependenciesHash == null) {
+      return null;
+    }
+    return Hashing.combineOrdered(Arrays.asList(hash, dependenciesHash)).toString();
+  }
+
+  /**
+   * Memoized per run such that a super class shared by many model classes is only read once.
+   */
+  private HashCode hashWithSuperclasses(final Class<?> clazz) {
+    HashCode hash = hashes.get(clazz);
+    if (hash == null) {
+      hash = computeHashWithSuperclasses(clazz);
+      hashes.put(clazz, hash);
+    }
+    return UNREADABLE.equals(hash) ? null : hash;
+  }
+
+  private HashCode computeHashWithSuperclasses(final Class<?> clazz) {
+    HashCode bytecodeHash = hashBytecode(clazz);
+    if (bytecodeHash == null) {
+      return UNREADABLE;
+    }
+    Class<?> superclass = clazz.getSuperclass();
+    if (superclass == null || superclass.getClassLoader() == null) {
+      return bytecodeHash;
+    }
+    HashCode superclassHash = hashWithSuperclasses(superclass);
+    return superclassHash == null ? UNREADABLE : Hashing.combineOrdered(Arrays.asList(bytecodeHash,
+      superclassHash));
+  }
+
+  private Set<String> dependencyNames() {
+    Set<String> names = new HashSet<>();
+    for (Class<?> dependency : dependencies) {
+      names.add(dependency.getName());
+    }
+    return names;
+  }
+
+  private HashCode hashDependencies() {
+    List<HashCode> hashCodes = new ArrayList<>();
+    // combining needs at least one hash code
+    hashCodes.add(HASH_FUNCTION.hashInt(0));
+    for (Class<?> dependency : Ordering.usingToString().sortedCopy(dependencies)) {
+      HashCode hash = hashBytecode(dependency);
+      if (hash == null) {
+        return null;
+      }
+      hashCodes.add(hash);
+    }
+    return Hashing.combineOrdered(hashCodes);
+  }
+
+  private HashCode hashBytecode(final Class<?> clazz) {
+    ClassLoader classLoader = clazz.getClassLoader();
+    if (classLoader == null) {
+      // part of the JRE
+      return HASH_FUNCTION.hashUnencodedChars(clazz.getName());
+    }
+    String fingerprint = fingerprint(clazz);
+    BytecodeHash bytecodeHash = bytecodeHashes.get(clazz.getName());
+    if (fingerprint != null && bytecodeHash != null && fingerprint.equals(bytecodeHash.fingerprint)) {
+      return bytecodeHash.hash;
+    }
+    try (InputStream inputStream = classLoader.getResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+      if (inputStream == null) {
+        return null;
+      }
+      HashCode hash = HASH_FUNCTION.hashBytes(ByteStreams.toByteArray(inputStream));
+      if (fingerprint != null) {
+        bytecodeHashes.put(clazz.getName(), new BytecodeHash(fingerprint, hash));
+      }
+      return hash;
+    } catch (IOException e) {
+      logger.debug("Cannot read bytecode of " + clazz.getName() + ", extracting its constraints.", e);
+      return null;
+    }
+  }
+
+  /**
+   * Fingerprints the class file of a class by path, size and modification time, of the jar if the class was loaded
+   * from a jar.
+   *
+   * @return fingerprint or {@code null} if the class wasn't loaded from a local jar or directory
+   */
+  private static String fingerprint(final Class<?> clazz) {
+    CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+    File location = codeSource == null || codeSource.getLocation() == null ? null : ClassFileScanner.toFile(
+      codeSource.getLocation());
+    if (location == null) {
+      return null;
+    }
+    File file = location.isDirectory() ? new File(location, clazz.getName().replace('.', File.separatorChar)
+      + ".class") : location;
+    long lastModified = file.lastModified();
+    return lastModified == 0 ? null : file.getPath() + '/' + file.length() + '/' + lastModified;
+  }
+
+  /**
+   * @param className name of the model class
+   * @param hash      bytecode hash of the class, see {@link #hash(Class)}
+   * @return constraints extracted from the class with this bytecode or {@code null} if there are none
+   */
+  ClassConstraints get(final String className, final String hash) {
+    Entry entry = entries.get(className);
+    return hash != null && entry != null && hash.equals(entry.hash) ? entry.classConstraints : null;
+  }
+
+  /**
+   * @param className        name of the model class
+   * @param hash             bytecode hash of the class, see {@link #hash(Class)}, nothing is stored if null
+   * @param classConstraints constraints extracted from the class
+   */
+  void put(final String className, final String hash, final ClassConstraints classConstraints) {
+    extracted.incrementAndGet();
+    if (hash != null) {
+      entries.put(className, new Entry(hash, classConstraints));
+    }
+  }
+
+  /**
+   * Hash of the bytecode of a class and the fingerprint of the class file it was read from.
+   */
+  private static final class BytecodeHash {
+    private final String fingerprint;
+    private final HashCode hash;
+
+    private BytecodeHash(final String fingerprint, final HashCode hash) {
+      this.fingerprint = fingerprint;
+      this.hash = hash;
+    }
+  }
+
+  /**
+   * Constraints of a class and the hash of the bytecode they were extracted from.
+   */
+  private static final class Entry {
+    private final String hash;
+    private final ClassConstraints classConstraints;
+
+    private Entry(final String hash, final ClassConstraints classConstraints) {
+      this.hash = hash;
+      this.classConstraints = classConstraints;
+    }
+  }
+}
@@ -3,6 +3,8 @@ package com.github.valdr;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import com.github.valdr.decorator.DecoratorFactories;
+import com.github.valdr.decorator.DecoratorFactory;
 
 /**
  * Maps constraint name to constraint attributes (Bean Validation annotation attributes).
@@ -20,6 +22,43 @@ public class FieldConstraints implements MinimalMap<MinimalObjectMap> {
     return map.put(key, value);
   }
 
+  /**
+   * Adds the attributes of a constraint. Built-in constraints are added under their valdr name and wrapped by their
+   * decorator, all other constraints are added under the name of their annotation class.
+   *
+   * @param annotationClassName fully qualified name of the constraint annotation class
+   * @param attributes          attributes of the constraint
+   * @see BuiltInConstraint
+   */
+  public void putConstraint(final String annotationClassName, final ConstraintAttributes attributes) {
+    BuiltInConstraint supportedValidator = BuiltInConstraint.valueOfAnnotationClassNameOrNull(annotationClassName);
+    if (supportedValidator == null) {
+      map.put(annotationClassName, attributes);
+    } else {
+      map.put(supportedValidator.toString(), supportedValidator.createDecoratorFor(attributes));
+    }
+  }
+
+  /**
+   * Adds the attributes of a constraint like {@link #putConstraint(String, ConstraintAttributes)} but decorates them
+   * with the factory registered for the annotation if there is one.
+   *
+   * @param annotationClassName fully qualified name of the constraint annotation class
+   * @param attributes          attributes of the constraint
+   * @param decoratorFactories  registered decorator factories
+   */
+  public void putConstraint(final String annotationClassName, final ConstraintAttributes attributes,
+                            final DecoratorFactories decoratorFactories) {
+    DecoratorFactory decoratorFactory = decoratorFactories.get(annotationClassName);
+    if (decoratorFactory == null) {
+      putConstraint(annotationClassName, attributes);
+    } else {
+      BuiltInConstraint supportedValidator = BuiltInConstraint.valueOfAnnotationClassNameOrNull(annotationClassName);
+      map.put(supportedValidator == null ? annotationClassName : supportedValidator.toString(),
+        decoratorFactory.createDecorator(attributes));
+    }
+  }
+
   @Override
   public int size() {
     return map.size();
@@ -40,6 +40,31 @@ public final class Options {
      */
     private List<String> customAnnotationClasses = Lists.newArrayList();
 
+    /**
+     * Collection of fully qualified annotation class names marking model classes. Classes in {@code modelPackages} annotated with one of
+     * them and their sub classes are parsed. Default is javax.persistence.Entity. Mandatory: no Use: CLI/Servlet
+     */
+    private List<String> modelAnnotations = Lists.newArrayList("javax.persistence.Entity");
+
+    /**
+     * Collection of fully qualified class or interface names. Classes in {@code modelPackages} extending or implementing one of them are
+     * parsed. Mandatory: no Use: CLI/Servlet
+     */
+    private List<String> modelBaseTypes = Lists.newArrayList();
+
+    /**
+     * Collection of fully qualified class names (e.g. com.company.abc.model.PersonDto) to parse in addition to the classes found by the
+     * other means. Naturally this only makes sense for classes contained in packages included in {@code modelPackages}. Mandatory: no
+     * Use: CLI/Servlet
+     */
+    private List<String> modelClasses = Lists.newArrayList();
+
+    /**
+     * Whether any class in {@code modelPackages} having a field with a built-in or custom constraint annotation is parsed, e.g. DTOs and
+     * embeddables. Default is false. Mandatory: no Use: CLI/Servlet
+     */
+    private Boolean discoverConstrainedClasses = Boolean.FALSE;
+
     /**
      * Whether the output type name should be the simple name of a type (default) or the full type name (i.e., including the package name). Mandatory: no Use: CLI/Servlet
      */
@@ -56,6 +81,118 @@ public final class Options {
      */
     private String outputFile = StringUtils.EMPTY;
 
+    /**
+     * Whether the model classes of a jar or directory are taken from the constraint index generated at compile time (see
+     * valdr-bean-validation-processor) if it contains one. Jars and directories without an index are scanned at runtime. Only enable it
+     * if the indexes are generated by full builds, incremental compilation produces incomplete indexes. Indexes only record entities, they
+     * are ignored unless model classes are discovered by javax.persistence.Entity only. Default is false. Mandatory: no Use: CLI/Servlet
+     */
+    private Boolean useConstraintIndex = Boolean.FALSE;
+
+    /**
+     * Whether the complete validation rules document generated at compile time (see valdr-bean-validation-processor) is used if there is
+     * exactly one in the classpath. In that case the model classes aren't parsed at runtime at all and the document is served as it was
+     * generated, i.e. with the configuration passed to the processor rather than this one. Only enable it if the processor gets the same
+     * configuration and all model classes are compiled in one module. The document only covers entities, it's ignored unless model
+     * classes are discovered by javax.persistence.Entity only. Default is false. Mandatory: no Use: CLI/Servlet
+     */
+    private Boolean usePrecompiledRules = Boolean.FALSE;
+
+    /**
+     * Number of threads used to extract the constraints of the model classes. 1 (default) parses all classes sequentially on the calling
+     * thread, 0 uses as many threads as there are processors available. The output is the same regardless of this setting. Mandatory: no
+     * Use: CLI/Servlet
+     */
+    private Integer parserParallelism = 1;
+
+    /**
+     * Directory in which the results of classpath scans are cached across runs, keyed by a fingerprint of the scanned jars and
+     * directories. Only changed jars and directories are scanned again, if none changed the cached constraints are used without parsing
+     * the model classes. Empty (default) disables the cache. Mandatory: no Use: CLI/Servlet
+     */
+    private String scanCacheDirectory = "";
+
+    /**
+     * Whether re-parsing only extracts the constraints of model classes whose bytecode (or that of a super class) changed since the
+     * previous parse and reuses the constraints of all other classes. Useful if model jars are replaced at runtime, see refreshPolicy.
+     * Default is false. Mandatory: no Use: Servlet
+     */
+    private Boolean incrementalParsing = Boolean.FALSE;
+
+    /**
+     * Whether the constraints extracted from a model class are shared by all parsers in the JVM, e.g. of several Servlets or of
+     * successive re-parses, such that parsing an already parsed class with the same custom annotations, decorators and excluded fields
+     * is a lookup. The constraints are attached to the class and released together with its class loader. The cache isn't bounded, each
+     * class keeps one entry per such configuration; disable it if parsers are created with many different configurations. Default is
+     * true. Mandatory: no Use: CLI/Servlet
+     */
+    private Boolean sharedConstraintCache = Boolean.TRUE;
+
+    /**
+     * Whether the classpath is scanned by reading the class files directly rather than with Reflections. Model classes are then only
+     * loaded if they or their super classes have fields with relevant annotations, classes without constraints are never loaded. Default
+     * is false. Mandatory: no Use: CLI/Servlet
+     */
+    private Boolean scanClassFiles = Boolean.FALSE;
+
+    /**
+     * Number of threads used to scan the jars and directories of the classpath which contain model packages. 1 (default) scans them one
+     * after the other on the calling thread, 0 uses as many threads as there are processors available. The result is the same regardless
+     * of this setting. Mandatory: no Use: CLI/Servlet
+     */
+    private Integer scannerParallelism = 1;
+
+    /**
+     * Defines when the Servlet re-parses the model classes. By default they are parsed once at startup and the result is served until the
+     * Servlet is destroyed. Mandatory: no Use: Servlet
+     */
+    private RefreshPolicy refreshPolicy = RefreshPolicy.NEVER;
+
+    /**
+     * Number of seconds after which the validation rules served by the Servlet are considered stale and are re-parsed. Only relevant for
+     * the {@link RefreshPolicy#INTERVAL} refresh policy. Mandatory: no Use: Servlet
+     */
+    private Long refreshInterval = 300L;
+
+    /**
+     * Value of the {@code Cache-Control} HTTP header sent along with the validation rules. The default forces clients to revalidate their
+     * cached copy on each use which, thanks to entity tags, is answered with "304 Not Modified" unless the rules changed. If empty no
+     * {@code Cache-Control} header is set. Mandatory: no Use: Servlet
+     */
+    private String cacheControl = "no-cache";
+
+    /**
+     * Whether the Servlet builds the validation rules on a background thread during initialization (default) rather than blocking
+     * initialization until they're built. Combined with {@code load-on-startup} the rules are ready before the first request arrives.
+     * Mandatory: no Use: Servlet
+     */
+    private Boolean warmUpInBackground = Boolean.TRUE;
+
+    /**
+     * Number of seconds sent in the {@code Retry-After} header of the "503 Service Unavailable" responses the Servlet sends as long as
+     * the validation rules are not ready. If empty (default) requests wait until the rules are built instead. Mandatory: no Use: Servlet
+     */
+    private Long retryAfter;
+
+    /**
+     * Whether the JSON document is indented (PRETTY, default) or written without any whitespace (COMPACT). Mandatory: no Use: CLI/Servlet
+     */
+    private OutputStyle outputStyle = OutputStyle.PRETTY;
+
+    /**
+     * Whether the keys of all objects in the JSON document (fields, constraints, constraint attributes) are sorted. Classes are always
+     * sorted by name. Sorted keys make the output byte-for-byte reproducible across runs and JVMs. Default is false. Mandatory: no Use:
+     * CLI/Servlet
+     */
+    private Boolean sortKeys = Boolean.FALSE;
+
+    /**
+     * Format in which the CLI writes the validation rules: JSON (default), SMILE or CBOR. The binary formats carry the same document and
+     * are cheaper to parse for clients; the Servlet always serves all formats and selects one by the request's {@code Accept} header.
+     * Mandatory: no Use: CLI
+     */
+    private OutputFormat outputFormat = OutputFormat.JSON;
+
     /**
      * Validates the consistency and integrity of the configured options.
      * @throws InvalidConfigurationException if problems are detected
@@ -64,6 +201,27 @@ public final class Options {
         if (this.getModelPackages().isEmpty()) {
             throw new InvalidConfigurationException("Model package names must not be empty.");
         }
+        if (this.getParserParallelism() == null || this.getParserParallelism() < 0) {
+            throw new InvalidConfigurationException("Parser parallelism must not be negative.");
+        }
+        if (this.getScannerParallelism() == null || this.getScannerParallelism() < 0) {
+            throw new InvalidConfigurationException("Scanner parallelism must not be negative.");
+        }
+        if (this.getRefreshPolicy() == null) {
+            throw new InvalidConfigurationException("Refresh policy must not be empty.");
+        }
+        if (this.getOutputStyle() == null) {
+            throw new InvalidConfigurationException("Output style must not be empty.");
+        }
+        if (this.getOutputFormat() == null) {
+            throw new InvalidConfigurationException("Output format must not be empty.");
+        }
+        if (this.getRetryAfter() != null && this.getRetryAfter() < 0) {
+            throw new InvalidConfigurationException("Retry after must not be negative.");
+        }
+        if (this.getRefreshPolicy() == RefreshPolicy.INTERVAL && (this.getRefreshInterval() == null || this.getRefreshInterval() <= 0)) {
+            throw new InvalidConfigurationException("Refresh interval must be positive for refresh policy INTERVAL.");
+        }
     }
 
     /**
@@ -106,6 +264,38 @@ public final class Options {
         return customAnnotationClasses;
     }
 
+    /**
+     * Obtém o valor de modelAnnotations.
+     * @return modelAnnotations
+     */
+    public List<String> getModelAnnotations() {
+        return modelAnnotations;
+    }
+
+    /**
+     * Obtém o valor de modelBaseTypes.
+     * @return modelBaseTypes
+     */
+    public List<String> getModelBaseTypes() {
+        return modelBaseTypes;
+    }
+
+    /**
+     * Obtém o valor de modelClasses.
+     * @return modelClasses
+     */
+    public List<String> getModelClasses() {
+        return modelClasses;
+    }
+
+    /**
+     * Obtém o valor de discoverConstrainedClasses.
+     * @return discoverConstrainedClasses
+     */
+    public Boolean getDiscoverConstrainedClasses() {
+        return discoverConstrainedClasses;
+    }
+
     /**
      * Obtém o valor de outputFullTypeName.
      * @return outputFullTypeName
@@ -130,6 +320,134 @@ public final class Options {
         return outputFile;
     }
 
+    /**
+     * Obtém o valor de useConstraintIndex.
+     * @return useConstraintIndex
+     */
+    public Boolean getUseConstraintIndex() {
+        return useConstraintIndex;
+    }
+
+    /**
+     * Obtém o valor de usePrecompiledRules.
+     * @return usePrecompiledRules
+     */
+    public Boolean getUsePrecompiledRules() {
+        return usePrecompiledRules;
+    }
+
+    /**
+     * Obtém o valor de parserParallelism.
+     * @return parserParallelism
+     */
+    public Integer getParserParallelism() {
+        return parserParallelism;
+    }
+
+    /**
+     * Obtém o valor de scanCacheDirectory.
+     * @return scanCacheDirectory
+     */
+    public String getScanCacheDirectory() {
+        return scanCacheDirectory;
+    }
+
+    /**
+     * Obtém o valor de incrementalParsing.
+     * @return incrementalParsing
+     */
+    public Boolean getIncrementalParsing() {
+        return incrementalParsing;
+    }
+
+    /**
+     * Obtém o valor de sharedConstraintCache.
+     * @return sharedConstraintCache
+     */
+    public Boolean getSharedConstraintCache() {
+        return sharedConstraintCache;
+    }
+
+    /**
+     * Obtém o valor de scanClassFiles.
+     * @return scanClassFiles
+     */
+    public Boolean getScanClassFiles() {
+        return scanClassFiles;
+    }
+
+    /**
+     * Obtém o valor de scannerParallelism.
+     * @return scannerParallelism
+     */
+    public Integer getScannerParallelism() {
+        return scannerParallelism;
+    }
+
+    /**
+     * Obtém o valor de refreshPolicy.
+     * @return refreshPolicy
+     */
+    public RefreshPolicy getRefreshPolicy() {
+        return refreshPolicy;
+    }
+
+    /**
+     * Obtém o valor de refreshInterval.
+     * @return refreshInterval
+     */
+    public Long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Obtém o valor de cacheControl.
+     * @return cacheControl
+     */
+    public String getCacheControl() {
+        return cacheControl;
+    }
+
+    /**
+     * Obtém o valor de warmUpInBackground.
+     * @return warmUpInBackground
+     */
+    public Boolean getWarmUpInBackground() {
+        return warmUpInBackground;
+    }
+
+    /**
+     * Obtém o valor de retryAfter.
+     * @return retryAfter
+     */
+    public Long getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Obtém o valor de outputStyle.
+     * @return outputStyle
+     */
+    public OutputStyle getOutputStyle() {
+        return outputStyle;
+    }
+
+    /**
+     * Obtém o valor de sortKeys.
+     * @return sortKeys
+     */
+    public Boolean getSortKeys() {
+        return sortKeys;
+    }
+
+    /**
+     * Obtém o valor de outputFormat.
+     * @return outputFormat
+     */
+    public OutputFormat getOutputFormat() {
+        return outputFormat;
+    }
+
     /**
      * Informa o valor de modelPackages.
      * @param modelPackages valor de modelPackages
@@ -162,6 +480,38 @@ public final class Options {
         this.customAnnotationClasses = customAnnotationClasses;
     }
 
+    /**
+     * Informa o valor de modelAnnotations.
+     * @param modelAnnotations valor de modelAnnotations
+     */
+    public void setModelAnnotations(final List<String> modelAnnotations) {
+        this.modelAnnotations = modelAnnotations;
+    }
+
+    /**
+     * Informa o valor de modelBaseTypes.
+     * @param modelBaseTypes valor de modelBaseTypes
+     */
+    public void setModelBaseTypes(final List<String> modelBaseTypes) {
+        this.modelBaseTypes = modelBaseTypes;
+    }
+
+    /**
+     * Informa o valor de modelClasses.
+     * @param modelClasses valor de modelClasses
+     */
+    public void setModelClasses(final List<String> modelClasses) {
+        this.modelClasses = modelClasses;
+    }
+
+    /**
+     * Informa o valor de discoverConstrainedClasses.
+     * @param discoverConstrainedClasses valor de discoverConstrainedClasses
+     */
+    public void setDiscoverConstrainedClasses(final Boolean discoverConstrainedClasses) {
+        this.discoverConstrainedClasses = discoverConstrainedClasses;
+    }
+
     /**
      * Informa o valor de outputFullTypeName.
      * @param outputFullTypeName valor de outputFullTypeName
@@ -186,6 +536,134 @@ public final class Options {
         this.outputFile = outputFile;
     }
 
+    /**
+     * Informa o valor de useConstraintIndex.
+     * @param useConstraintIndex valor de useConstraintIndex
+     */
+    public void setUseConstraintIndex(final Boolean useConstraintIndex) {
+        this.useConstraintIndex = useConstraintIndex;
+    }
+
+    /**
+     * Informa o valor de usePrecompiledRules.
+     * @param usePrecompiledRules valor de usePrecompiledRules
+     */
+    public void setUsePrecompiledRules(final Boolean usePrecompiledRules) {
+        this.usePrecompiledRules = usePrecompiledRules;
+    }
+
+    /**
+     * Informa o valor de parserParallelism.
+     * @param parserParallelism valor de parserParallelism
+     */
+    public void setParserParallelism(final Integer parserParallelism) {
+        this.parserParallelism = parserParallelism;
+    }
+
+    /**
+     * Informa o valor de scanCacheDirectory.
+     * @param scanCacheDirectory valor de scanCacheDirectory
+     */
+    public void setScanCacheDirectory(final String scanCacheDirectory) {
+        this.scanCacheDirectory = scanCacheDirectory;
+    }
+
+    /**
+     * Informa o valor de incrementalParsing.
+     * @param incrementalParsing valor de incrementalParsing
+     */
+    public void setIncrementalParsing(final Boolean incrementalParsing) {
+        this.incrementalParsing = incrementalParsing;
+    }
+
+    /**
+     * Informa o valor de sharedConstraintCache.
+     * @param sharedConstraintCache valor de sharedConstraintCache
+     */
+    public void setSharedConstraintCache(final Boolean sharedConstraintCache) {
+        this.sharedConstraintCache = sharedConstraintCache;
+    }
+
+    /**
+     * Informa o valor de scanClassFiles.
+     * @param scanClassFiles valor de scanClassFiles
+     */
+    public void setScanClassFiles(final Boolean scanClassFiles) {
+        this.scanClassFiles = scanClassFiles;
+    }
+
+    /**
+     * Informa o valor de scannerParallelism.
+     * @param scannerParallelism valor de scannerParallelism
+     */
+    public void setScannerParallelism(final Integer scannerParallelism) {
+        this.scannerParallelism = scannerParallelism;
+    }
+
+    /**
+     * Informa o valor de refreshPolicy.
+     * @param refreshPolicy valor de refreshPolicy
+     */
+    public void setRefreshPolicy(final RefreshPolicy refreshPolicy) {
+        this.refreshPolicy = refreshPolicy;
+    }
+
+    /**
+     * Informa o valor de refreshInterval.
+     * @param refreshInterval valor de refreshInterval
+     */
+    public void setRefreshInterval(final Long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Informa o valor de cacheControl.
+     * @param cacheControl valor de cacheControl
+     */
+    public void setCacheControl(final String cacheControl) {
+        this.cacheControl = cacheControl;
+    }
+
+    /**
+     * Informa o valor de warmUpInBackground.
+     * @param warmUpInBackground valor de warmUpInBackground
+     */
+    public void setWarmUpInBackground(final Boolean warmUpInBackground) {
+        this.warmUpInBackground = warmUpInBackground;
+    }
+
+    /**
+     * Informa o valor de retryAfter.
+     * @param retryAfter valor de retryAfter
+     */
+    public void setRetryAfter(final Long retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Informa o valor de outputStyle.
+     * @param outputStyle valor de outputStyle
+     */
+    public void setOutputStyle(final OutputStyle outputStyle) {
+        this.outputStyle = outputStyle;
+    }
+
+    /**
+     * Informa o valor de sortKeys.
+     * @param sortKeys valor de sortKeys
+     */
+    public void setSortKeys(final Boolean sortKeys) {
+        this.sortKeys = sortKeys;
+    }
+
+    /**
+     * Informa o valor de outputFormat.
+     * @param outputFormat valor de outputFormat
+     */
+    public void setOutputFormat(final OutputFormat outputFormat) {
+        this.outputFormat = outputFormat;
+    }
+
     /**
      * Thrown if configuration is invalid.
      */
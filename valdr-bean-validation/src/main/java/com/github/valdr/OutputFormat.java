@@ -0,0 +1,182 @@
+package com.github.valdr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.valdr.serializer.SerializationContext;
+
+/**
+ * Encodings in which the validation rules document can be written. All formats carry the same tree, the binary ones
+ * are considerably cheaper to parse on the client. The declaration order defines the preference among formats the
+ * client accepts with equal quality: JSON first such that clients accepting anything (e.g. browsers) get JSON.
+ *
+ * @see Options#getOutputFormat()
+ */
+public enum OutputFormat {
+  // CHECKSTYLE:OFF
+  /**
+   * UTF-8 encoded JSON as specified by valdr.
+   */
+  JSON("json", "application/json") {
+    @Override
+    public JsonFactory getFactory() {
+      return SerializationContext.getObjectMapper().getFactory();
+    }
+
+    @Override
+    public String getContentType() {
+      return "application/json;charset=UTF-8";
+    }
+  },
+  /**
+   * Jackson's binary JSON format Smile, repeated field names are written as back references.
+   */
+  SMILE("smile", "application/x-jackson-smile") {
+    @Override
+    public JsonFactory getFactory() {
+      return Factories.SMILE;
+    }
+  },
+  /**
+   * Concise Binary Object Representation as specified by RFC 7049.
+   */
+  CBOR("cbor", "application/cbor") {
+    @Override
+    public JsonFactory getFactory() {
+      return Factories.CBOR;
+    }
+  };
+  // CHECKSTYLE:ON
+
+  private final String token;
+  private final String mediaType;
+
+  private OutputFormat(final String token, final String mediaType) {
+    this.token = token;
+    this.mediaType = mediaType;
+  }
+
+  /**
+   * @return short lower case name of the format, e.g. used in entity tags
+   */
+  public String getToken() {
+    return token;
+  }
+
+  /**
+   * @return media type as used in the {@code Accept} HTTP header
+   */
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * @return value of the {@code Content-Type} HTTP header for documents in this format
+   */
+  public String getContentType() {
+    return mediaType;
+  }
+
+  /**
+   * @return factory creating generators and parsers for this format, it must not be reconfigured
+   */
+  public abstract JsonFactory getFactory();
+
+  /**
+   * Transcodes a JSON document into this format. The document is streamed token by token, no tree is built.
+   *
+   * @param json UTF-8 encoded JSON document
+   * @return document in this format, the passed array itself for {@link #JSON}
+   */
+  public byte[] encode(final byte[] json) {
+    if (this == JSON) {
+      return json;
+    }
+    ByteArrayOutputStream encoded = new ByteArrayOutputStream(json.length / 2);
+    try (JsonParser parser = JSON.getFactory().createParser(json);
+         JsonGenerator generator = getFactory().createGenerator(encoded)) {
+      if (parser.nextToken() != null) {
+        generator.copyCurrentStructure(parser);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot " + token + " encode document.", e);
+    }
+    return encoded.toByteArray();
+  }
+
+  /**
+   * Selects the format preferred by the client according to the passed {@code Accept} header value. The formats are
+   * ranked by the quality value of the most specific matching media range, ties are resolved by declaration order. If
+   * no format is acceptable JSON is used anyway.
+   *
+   * @param accept value of the {@code Accept} request header, may be {@code null}
+   * @return negotiated format
+   */
+  public static OutputFormat negotiate(final String accept) {
+    if (StringUtils.isBlank(accept)) {
+      return JSON;
+    }
+    // per format: quality and specificity (2 = exact, 1 = type wildcard, 0 = full wildcard) of best matching range
+    float[] qualities = new float[values().length];
+    int[] specificities = new int[values().length];
+    Arrays.fill(specificities, -1);
+    for (String element : StringUtils.split(accept, ',')) {
+      String[] parts = StringUtils.split(element, ';');
+      if (parts.length == 0) {
+        continue;
+      }
+      String range = parts[0].trim().toLowerCase();
+      for (OutputFormat format : values()) {
+        int specificity = matches(range, format.mediaType);
+        if (specificity > specificities[format.ordinal()]) {
+          specificities[format.ordinal()] = specificity;
+          qualities[format.ordinal()] = parseQuality(parts);
+        }
+      }
+    }
+    OutputFormat best = JSON;
+    float bestQuality = 0;
+    for (OutputFormat format : values()) {
+      if (qualities[format.ordinal()] > bestQuality) {
+        best = format;
+        bestQuality = qualities[format.ordinal()];
+      }
+    }
+    return best;
+  }
+
+  private static int matches(final String range, final String mediaType) {
+    if (range.equals(mediaType)) {
+      return 2;
+    }
+    if ("*/*".equals(range) || "*".equals(range)) {
+      return 0;
+    }
+    return range.endsWith("/*") && mediaType.startsWith(range.substring(0, range.length() - 1)) ? 1 : -1;
+  }
+
+  private static float parseQuality(final String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String parameter = parts[i].trim();
+      if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+        return NumberUtils.toFloat(parameter.substring(2).trim(), 0);
+      }
+    }
+    return 1;
+  }
+
+  /**
+   * Lazily initialized factories of the binary formats (initialization-on-demand holder).
+   */
+  private static final class Factories {
+    private static final JsonFactory SMILE = new SmileFactory();
+    private static final JsonFactory CBOR = new CBORFactory();
+  }
+}
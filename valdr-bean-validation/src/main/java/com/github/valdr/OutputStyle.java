@@ -0,0 +1,17 @@
+package com.github.valdr;
+
+/**
+ * Defines how the JSON document produced by {@link ConstraintParser} is formatted.
+ *
+ * @see Options#getOutputStyle()
+ */
+public enum OutputStyle {
+  /**
+   * Indented output, one field per line.
+   */
+  PRETTY,
+  /**
+   * Output without any whitespace, considerably smaller than {@link #PRETTY}.
+   */
+  COMPACT
+}
@@ -0,0 +1,23 @@
+package com.github.valdr;
+
+/**
+ * Defines when the validation rules served by {@link ValidationRulesServlet} are re-parsed from the model classes.
+ *
+ * @see Options#getRefreshPolicy()
+ */
+public enum RefreshPolicy {
+  /**
+   * Model classes are parsed once and the result is served for the lifetime of the Servlet.
+   */
+  NEVER,
+  /**
+   * Model classes are re-parsed once the current rules are older than the configured refresh interval.
+   *
+   * @see Options#getRefreshInterval()
+   */
+  INTERVAL,
+  /**
+   * Model classes are re-parsed only if explicitly requested through {@link ValidationRulesCache#refresh()}.
+   */
+  ON_DEMAND
+}
@@ -0,0 +1,114 @@
+package com.github.valdr;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import com.github.valdr.decorator.DecoratorFactories;
+import com.github.valdr.decorator.DecoratorFactory;
+
+/**
+ * Lookup table of all annotation classes the parser considers, i.e. the {@link BuiltInConstraint}s and the configured
+ * custom annotations. It maps each annotation class to the handler which adds the annotation's attributes to the
+ * constraints of a field, decorated by the {@link DecoratorFactory} registered for the annotation or the one of the
+ * built-in constraint. The table is built once and only read afterwards; since annotation classes are keyed by
+ * identity a lookup neither iterates nor allocates.
+ */
+final class RelevantAnnotations {
+  private final Map<Class<? extends Annotation>, Handler> handlers = new IdentityHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param customAnnotationClasses custom annotation classes to consider in addition to the built-in constraints
+   * @param decoratorFactories      registered decorator factories, they take precedence over the built-in ones
+   */
+  RelevantAnnotations(final Iterable<? extends Class<? extends Annotation>> customAnnotationClasses,
+                      final DecoratorFactories decoratorFactories) {
+    for (Class<? extends Annotation> customAnnotationClass : customAnnotationClasses) {
+      String name = customAnnotationClass.getName();
+      handlers.put(customAnnotationClass, new Handler(name, decoratorFactories.get(name)));
+    }
+    for (BuiltInConstraint constraint : BuiltInConstraint.values()) {
+      DecoratorFactory decoratorFactory = decoratorFactories.get(constraint.getBeanValidationAnnotation().getName());
+      handlers.put(constraint.getBeanValidationAnnotation(), new Handler(constraint.toString(),
+        decoratorFactory == null ? constraint.getDecoratorFactory() : decoratorFactory));
+    }
+  }
+
+  /**
+   * @param annotationClass annotation class
+   * @return handler for the annotation class or null if it isn't relevant
+   */
+  Handler get(final Class<? extends Annotation> annotationClass) {
+    return handlers.get(annotationClass);
+  }
+
+  /**
+   * @return all relevant annotation classes
+   */
+  Set<Class<? extends Annotation>> getAnnotationClasses() {
+    return Collections.unmodifiableSet(handlers.keySet());
+  }
+
+  /**
+   * @return the relevant annotation classes and the classes of their decorator factories
+   */
+  Set<Class<?>> getClasses() {
+    Set<Class<?>> classes = new HashSet<>();
+    for (Map.Entry<Class<? extends Annotation>, Handler> entry : handlers.entrySet()) {
+      classes.add(entry.getKey());
+      if (entry.getValue().decoratorFactory != null) {
+        classes.add(entry.getValue().decoratorFactory.getClass());
+      }
+    }
+    return classes;
+  }
+
+  /**
+   * Describes the table by names only, two tables with equal descriptions produce the same constraints for a class.
+   * Holds no reference to any class, the description can therefore be kept beyond the lifetime of the class loaders
+   * involved.
+   *
+   * @return annotation class name mapped to the valdr constraint name and the class name of the decorator factory
+   */
+  Map<String, String> describe() {
+    Map<String, String> description = new TreeMap<>();
+    for (Map.Entry<Class<? extends Annotation>, Handler> entry : handlers.entrySet()) {
+      Handler handler = entry.getValue();
+      description.put(entry.getKey().getName(), handler.constraintName + (handler.decoratorFactory == null ? "" :
+        "/" + handler.decoratorFactory.getClass().getName()));
+    }
+    return description;
+  }
+
+  /**
+   * Adds the attributes of a relevant annotation to the constraints of a field.
+   */
+  static final class Handler {
+    private final String constraintName;
+    private final DecoratorFactory decoratorFactory;
+
+    private Handler(final String constraintName, final DecoratorFactory decoratorFactory) {
+      this.constraintName = constraintName;
+      this.decoratorFactory = decoratorFactory;
+    }
+
+    /**
+     * Adds the attributes under the valdr name of the constraint, decorated if there is a decorator factory.
+     *
+     * @param fieldConstraints constraints of a field
+     * @param attributes       attributes of the annotation
+     */
+    void addTo(final FieldConstraints fieldConstraints, final ConstraintAttributes attributes) {
+      if (decoratorFactory == null) {
+        fieldConstraints.put(constraintName, attributes);
+      } else {
+        fieldConstraints.put(constraintName, decoratorFactory.createDecorator(attributes));
+      }
+    }
+  }
+}
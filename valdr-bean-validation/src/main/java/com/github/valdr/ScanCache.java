@@ -0,0 +1,543 @@
+package com.github.valdr;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.valdr.serializer.SerializationContext;
+import com.google.common.base.Joiner;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Persistent cache of the results of classpath scans, stored in {@link Options#getScanCacheDirectory()}. For every
+ * classpath URL (jar or directory) containing model packages the cache records a fingerprint, i.e. size and
+ * modification time of the jar or of all files in the model packages of the directory, and the names of the model
+ * types found in it. Additionally the extracted constraints of all model classes are stored together with the
+ * fingerprints of the jars or class files they depend on besides the model packages: super classes in other packages,
+ * the relevant annotations, their decorator factories and valdr itself.
+ * <p>
+ * When the classpath is scanned again only the URLs whose fingerprint changed are scanned. As model types may extend
+ * model types of other URLs each URL is scanned knowing the model types of all other URLs; if the model types of a URL
+ * change, the URLs scanned with the former ones are scanned again. The stored constraints are only used if no
+ * fingerprint changed at all. The cache file name is derived from all options which influence scan and extraction,
+ * the relevant annotations with their decorator factories and the valdr version, different configurations therefore
+ * don't share a cache file.
+ * </p>
+ * Instances are not thread-safe, each parser run opens its own.
+ */
+final class ScanCache {
+  private static final int FORMAT_VERSION = 2;
+
+  private final Logger logger = LoggerFactory.getLogger(ScanCache.class);
+  private final File file;
+  private final Options options;
+  private final RelevantAnnotations relevantAnnotations;
+  private final SortedMap<String, UrlEntry> cachedEntries = new TreeMap<>();
+  private final SortedMap<String, UrlEntry> currentEntries = new TreeMap<>();
+  private final SortedMap<String, String> cachedDependencies = new TreeMap<>();
+  private boolean cachedRules;
+  private long cachedLength;
+  private long cachedLastModified;
+  private boolean verified;
+  private boolean unchanged;
+  private File temporaryFile;
+  // the generator doesn't close its target, see SerializationContext#createGenerator(OutputStream, OutputFormat)
+  private OutputStream outputStream;
+  private JsonGenerator generator;
+
+  private ScanCache(final File file, final Options options, final RelevantAnnotations relevantAnnotations) {
+    this.file = file;
+    this.options = options;
+    this.relevantAnnotations = relevantAnnotations;
+    load();
+  }
+
+  /**
+   * @param options             configuration, defines the cache directory
+   * @param relevantAnnotations annotations the constraints are extracted from
+   * @return cache or {@code null} if no cache directory is configured
+   */
+  static ScanCache open(final Options options, final RelevantAnnotations relevantAnnotations) {
+    if (StringUtils.isEmpty(options.getScanCacheDirectory())) {
+      return null;
+    }
+    return new ScanCache(new File(options.getScanCacheDirectory(), "valdr-scan-cache-" + configurationHash(options,
+      relevantAnnotations) + ".json"), options, relevantAnnotations);
+  }
+
+  /**
+   * Finds the names of the model classes in the passed URLs. URLs with unchanged fingerprint are taken from the cache,
+   * all others are scanned by the passed scanner.
+   *
+   * @param urls    classpath URLs containing model packages
+   * @param scanner scans a single URL for model types
+   * @return names of the model classes to parse in all URLs
+   */
+  Set<String> findClassNames(final Collection<URL> urls, final UrlScanner scanner) {
+    SortedMap<String, URL> urlsByKey = new TreeMap<>();
+    for (URL url : urls) {
+      urlsByKey.put(url.toExternalForm(), url);
+    }
+    // the model types of the other URLs each URL was scanned with, for the cached entries those of the cached run
+    Map<String, Set<String>> scannedWith = new HashMap<>();
+    Map<String, String> fingerprints = new HashMap<>();
+    Set<String> toScan = new TreeSet<>();
+    for (Map.Entry<String, URL> url : urlsByKey.entrySet()) {
+      String fingerprint = fingerprint(url.getValue());
+      UrlEntry entry = cachedEntries.get(url.getKey());
+      if (fingerprint == null || entry == null || !fingerprint.equals(entry.fingerprint)) {
+        fingerprints.put(url.getKey(), fingerprint);
+        toScan.add(url.getKey());
+      } else {
+        currentEntries.put(url.getKey(), entry);
+        scannedWith.put(url.getKey(), getModelTypeNamesExcept(cachedEntries, url.getKey()));
+      }
+    }
+    unchanged = toScan.isEmpty() && urlsByKey.keySet().equals(cachedEntries.keySet()) && areDependenciesUnchanged();
+    int scanned = 0;
+    for (int pass = 0; !toScan.isEmpty(); pass++) {
+      if (pass > urlsByKey.size()) {
+        logger.warn("Model types of classpath URLs {} still change after {} passes, using the last scan.", toScan,
+          pass);
+        break;
+      }
+      for (String key : toScan) {
+        Set<String> modelTypeNames = getModelTypeNamesExcept(currentEntries, key);
+        String fingerprint = currentEntries.containsKey(key) ? currentEntries.get(key).fingerprint : fingerprints.get(
+          key);
+        currentEntries.put(key, new UrlEntry(fingerprint, scanner.scan(urlsByKey.get(key), modelTypeNames)));
+        scannedWith.put(key, modelTypeNames);
+        scanned++;
+      }
+      toScan.clear();
+      for (String key : urlsByKey.keySet()) {
+        if (!getModelTypeNamesExcept(currentEntries, key).equals(scannedWith.get(key))) {
+          toScan.add(key);
+        }
+      }
+    }
+    Set<String> classNames = new TreeSet<>();
+    for (UrlEntry entry : currentEntries.values()) {
+      classNames.addAll(entry.classNames);
+    }
+    verified = true;
+    logger.info("Scanned {} of {} classpath URLs, the others are unchanged since scan cache '{}' was written.", scanned,
+      urls.size(), file);
+    return classNames;
+  }
+
+  /**
+   * @return parser positioned before the cached validation rules document if nothing changed since the rules were
+   * stored, {@code null} otherwise
+   */
+  JsonParser openRules() {
+    if (!verified || !unchanged || !cachedRules || file.length() != cachedLength || file.lastModified()
+      != cachedLastModified) {
+      return null;
+    }
+    try {
+      JsonParser parser = SerializationContext.getObjectMapper().getFactory().createParser(file);
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          if ("rules".equals(parser.getCurrentName())) {
+            return parser;
+          }
+          parser.nextToken();
+          parser.skipChildren();
+        }
+      }
+      parser.close();
+    } catch (IOException e) {
+      logger.warn("Cannot read scan cache '" + file + "', parsing the model classes.", e);
+    }
+    return null;
+  }
+
+  /**
+   * Starts to store the fingerprints of the last {@link #findClassNames(Collection, UrlScanner)} call and of the
+   * dependencies of the passed classes. The constraints extracted from the classes are added one after the other by
+   * {@link #storeRules(String, ClassConstraints, SerializationContext)} and written right away, such that the cache
+   * doesn't hold them in memory; the cache file is only replaced by {@link #finishStore()}. Failures are logged but
+   * otherwise ignored.
+   *
+   * @param classes model classes to parse
+   * @return whether the constraints are going to be stored
+   */
+  boolean startStore(final Collection<Class<?>> classes) {
+    if (!verified) {
+      return false;
+    }
+    try {
+      Files.createDirectories(file.getParentFile().toPath());
+      temporaryFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+      outputStream = new FileOutputStream(temporaryFile);
+      generator = SerializationContext.compact().createGenerator(outputStream);
+      generator.writeStartObject();
+      generator.writeNumberField("version", FORMAT_VERSION);
+      generator.writeObjectFieldStart("urls");
+      for (Map.Entry<String, UrlEntry> entry : currentEntries.entrySet()) {
+        generator.writeObjectFieldStart(entry.getKey());
+        generator.writeStringField("fingerprint", entry.getValue().fingerprint);
+        writeArrayField("classes", entry.getValue().classNames);
+        writeArrayField("otherModelTypes", entry.getValue().otherModelTypeNames);
+        generator.writeEndObject();
+      }
+      generator.writeEndObject();
+      generator.writeObjectFieldStart("dependencies");
+      for (Map.Entry<String, String> dependency : findDependencies(classes).entrySet()) {
+        generator.writeStringField(dependency.getKey(), dependency.getValue());
+      }
+      generator.writeEndObject();
+      generator.writeObjectFieldStart("rules");
+      return true;
+    } catch (IOException e) {
+      logger.warn("Cannot write scan cache '" + file + "'.", e);
+      abortStore();
+      return false;
+    }
+  }
+
+  /**
+   * Stores the constraints of a class, see {@link #startStore(Collection)}.
+   *
+   * @param name                 output name of the class
+   * @param classConstraints     constraints of the class
+   * @param serializationContext defines key order of the stored constraints
+   */
+  void storeRules(final String name, final ClassConstraints classConstraints,
+    final SerializationContext serializationContext) {
+    if (generator == null) {
+      return;
+    }
+    try {
+      generator.writeFieldName(name);
+      serializationContext.writeValue(generator, classConstraints);
+    } catch (IOException e) {
+      logger.warn("Cannot write scan cache '" + file + "'.", e);
+      abortStore();
+    }
+  }
+
+  /**
+   * Replaces the cache file by the one written since {@link #startStore(Collection)}.
+   */
+  void finishStore() {
+    if (generator == null) {
+      return;
+    }
+    try {
+      generator.writeEndObject();
+      generator.writeEndObject();
+      generator.close();
+      generator = null;
+      outputStream.close();
+      outputStream = null;
+      Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      temporaryFile = null;
+    } catch (IOException e) {
+      logger.warn("Cannot write scan cache '" + file + "'.", e);
+      abortStore();
+    }
+  }
+
+  /**
+   * Discards the cache file written since {@link #startStore(Collection)} unless it was finished, the cache file
+   * remains as it was.
+   */
+  void abortStore() {
+    if (generator != null) {
+      try {
+        generator.close();
+      } catch (IOException e) {
+        logger.debug("Cannot close scan cache '" + temporaryFile + "'.", e);
+      }
+      generator = null;
+    }
+    if (outputStream != null) {
+      try {
+        outputStream.close();
+      } catch (IOException e) {
+        logger.debug("Cannot close scan cache '" + temporaryFile + "'.", e);
+      }
+      outputStream = null;
+    }
+    if (temporaryFile != null) {
+      if (!temporaryFile.delete()) {
+        logger.debug("Cannot delete '{}'.", temporaryFile);
+      }
+      temporaryFile = null;
+    }
+  }
+
+  private void writeArrayField(final String name, final Set<String> values) throws IOException {
+    generator.writeArrayFieldStart(name);
+    for (String value : values) {
+      generator.writeString(value);
+    }
+    generator.writeEndArray();
+  }
+
+  private void load() {
+    if (!file.isFile()) {
+      return;
+    }
+    cachedLength = file.length();
+    cachedLastModified = file.lastModified();
+    // streamed such that the rules aren't read unless they are used
+    try (JsonParser parser = SerializationContext.getObjectMapper().getFactory().createParser(file)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return;
+      }
+      boolean currentVersion = false;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.getCurrentName();
+        parser.nextToken();
+        if ("version".equals(name)) {
+          currentVersion = parser.getIntValue() == FORMAT_VERSION;
+        } else if (!currentVersion) {
+          break;
+        } else if ("urls".equals(name)) {
+          loadUrls(parser.<JsonNode>readValueAsTree());
+        } else if ("dependencies".equals(name)) {
+          Iterator<Map.Entry<String, JsonNode>> dependencies = parser.<JsonNode>readValueAsTree().fields();
+          while (dependencies.hasNext()) {
+            Map.Entry<String, JsonNode> dependency = dependencies.next();
+            cachedDependencies.put(dependency.getKey(), dependency.getValue().asText());
+          }
+        } else {
+          cachedRules |= "rules".equals(name);
+          parser.skipChildren();
+        }
+      }
+      if (!currentVersion) {
+        clearCachedEntries();
+      }
+    } catch (IOException e) {
+      logger.warn("Cannot read scan cache '" + file + "', scanning the classpath.", e);
+      clearCachedEntries();
+    }
+  }
+
+  private void loadUrls(final JsonNode urls) {
+    Iterator<Map.Entry<String, JsonNode>> fields = urls.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> url = fields.next();
+      Map<String, Boolean> modelTypes = new HashMap<>();
+      for (JsonNode className : url.getValue().path("otherModelTypes")) {
+        modelTypes.put(className.asText(), Boolean.FALSE);
+      }
+      for (JsonNode className : url.getValue().path("classes")) {
+        modelTypes.put(className.asText(), Boolean.TRUE);
+      }
+      cachedEntries.put(url.getKey(), new UrlEntry(url.getValue().path("fingerprint").asText(null), modelTypes));
+    }
+  }
+
+  private void clearCachedEntries() {
+    cachedEntries.clear();
+    cachedDependencies.clear();
+    cachedRules = false;
+  }
+
+  private static Set<String> getModelTypeNamesExcept(final Map<String, UrlEntry> entries, final String key) {
+    Set<String> modelTypeNames = new HashSet<>();
+    for (Map.Entry<String, UrlEntry> entry : entries.entrySet()) {
+      if (!entry.getKey().equals(key)) {
+        modelTypeNames.addAll(entry.getValue().classNames);
+        modelTypeNames.addAll(entry.getValue().otherModelTypeNames);
+      }
+    }
+    return modelTypeNames;
+  }
+
+  private boolean areDependenciesUnchanged() {
+    for (Map.Entry<String, String> dependency : cachedDependencies.entrySet()) {
+      String fingerprint = fingerprint(new File(dependency.getKey()));
+      if (fingerprint == null || !fingerprint.equals(dependency.getValue())) {
+        logger.info("'{}' changed since scan cache '{}' was written.", dependency.getKey(), file);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The constraints of a class depend on the bytecode of its super classes, the relevant annotations and their
+   * decorators as well as valdr. Of these the ones in the model packages are covered by the URL fingerprints.
+   *
+   * @return fingerprints of the jars and class files containing the dependencies by path, an empty fingerprint for
+   * dependencies which cannot be fingerprinted
+   */
+  private SortedMap<String, String> findDependencies(final Collection<Class<?>> classes) {
+    SortedMap<String, String> dependencies = new TreeMap<>();
+    putDependency(dependencies, ScanCache.class);
+    for (Class<?> clazz : relevantAnnotations.getClasses()) {
+      putDependency(dependencies, clazz);
+    }
+    Set<Class<?>> superclasses = new HashSet<>();
+    for (Class<?> clazz : classes) {
+      for (Class<?> superclass = clazz.getSuperclass(); superclass != null && superclasses.add(superclass);
+           superclass = superclass.getSuperclass()) {
+        if (!isInModelPackages(superclass.getName())) {
+          putDependency(dependencies, superclass);
+        }
+      }
+    }
+    return dependencies;
+  }
+
+  private boolean isInModelPackages(final String className) {
+    for (String packageName : options.getModelPackages()) {
+      if (StringUtils.isNotEmpty(packageName) && className.startsWith(packageName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void putDependency(final Map<String, String> dependencies, final Class<?> clazz) {
+    ClassLoader classLoader = clazz.getClassLoader();
+    if (classLoader == null) {
+      // part of the JRE
+      return;
+    }
+    URL resource = classLoader.getResource(clazz.getName().replace('.', '/') + ".class");
+    File container = resource == null ? null : toContainerFile(resource);
+    String fingerprint = container == null ? null : fingerprint(container);
+    if (fingerprint == null) {
+      // the stored rules are never used
+      dependencies.put(clazz.getName(), "");
+    } else {
+      dependencies.put(container.getPath(), fingerprint);
+    }
+  }
+
+  /**
+   * @return the jar containing a resource or the resource file itself, {@code null} for other resources
+   */
+  private static File toContainerFile(final URL resource) {
+    if (!"jar".equals(resource.getProtocol())) {
+      return ClassFileScanner.toFile(resource);
+    }
+    try {
+      return ClassFileScanner.toFile(new URL(StringUtils.substringBefore(resource.getPath(), "!/")));
+    } catch (MalformedURLException e) {
+      return null;
+    }
+  }
+
+  private static String fingerprint(final File file) {
+    return file.isFile() ? file.length() + "/" + file.lastModified() : null;
+  }
+
+  /**
+   * Fingerprints jars by size and modification time and directories by path, size and modification time of all files
+   * in the model packages.
+   *
+   * @return fingerprint or {@code null} if the URL doesn't denote a local file
+   */
+  private String fingerprint(final URL url) {
+    File root = ClassFileScanner.toFile(url);
+    if (root == null || !root.exists()) {
+      return null;
+    }
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    if (root.isFile()) {
+      hasher.putLong(root.length()).putLong(root.lastModified());
+    } else {
+      for (String packageName : options.getModelPackages()) {
+        if (StringUtils.isNotEmpty(packageName)) {
+          putFiles(hasher, root, new File(root, packageName.replace('.', File.separatorChar)));
+        }
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  private void putFiles(final Hasher hasher, final File root, final File directory) {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (File child : new TreeSet<>(Arrays.asList(files))) {
+      if (child.isDirectory()) {
+        putFiles(hasher, root, child);
+      } else {
+        hasher.putUnencodedChars(child.getPath().substring(root.getPath().length())).putLong(child.length()).putLong(
+          child.lastModified());
+      }
+    }
+  }
+
+  private static String configurationHash(final Options options, final RelevantAnnotations relevantAnnotations) {
+    String configuration = Joiner.on('\n').useForNull("").join(FORMAT_VERSION, getValdrVersion(),
+      options.getModelPackages(), options.getExcludedClasses(), options.getExcludedFields(),
+      relevantAnnotations.describe(), options.getOutputFullTypeName(), options.getSortKeys(),
+      options.getScanClassFiles(), options.getModelAnnotations(), options.getModelBaseTypes(),
+      options.getModelClasses(), options.getDiscoverConstrainedClasses(), options.getUseConstraintIndex());
+    return Hashing.murmur3_128().hashUnencodedChars(configuration).toString();
+  }
+
+  /**
+   * @return version of valdr from the jar manifest, {@code null} if unknown
+   */
+  private static String getValdrVersion() {
+    Package valdrPackage = ScanCache.class.getPackage();
+    return valdrPackage == null ? null : valdrPackage.getImplementationVersion();
+  }
+
+  /**
+   * Scans a single classpath URL for model types.
+   */
+  interface UrlScanner {
+
+    /**
+     * @param url            classpath URL
+     * @param modelTypeNames names of the model types found in the other URLs, their sub classes are model types too
+     * @return names of the model types in the URL mapped to whether they are to be parsed
+     */
+    Map<String, Boolean> scan(URL url, Set<String> modelTypeNames);
+  }
+
+  /**
+   * Cached scan result of a single classpath URL.
+   */
+  private static final class UrlEntry {
+    private final String fingerprint;
+    private final Set<String> classNames = new TreeSet<>();
+    private final Set<String> otherModelTypeNames = new TreeSet<>();
+
+    private UrlEntry(final String fingerprint, final Map<String, Boolean> modelTypes) {
+      this.fingerprint = fingerprint;
+      for (Map.Entry<String, Boolean> modelType : modelTypes.entrySet()) {
+        if (modelType.getValue()) {
+          classNames.add(modelType.getKey());
+        } else {
+          otherModelTypeNames.add(modelType.getKey());
+        }
+      }
+    }
+  }
+}
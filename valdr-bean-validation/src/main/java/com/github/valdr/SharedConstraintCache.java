@@ -0,0 +1,102 @@
+package com.github.valdr;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shares the constraints extracted from model classes among all parsers in the JVM. The constraints are attached to
+ * the {@link Class} through a {@link ClassValue}, hence they live exactly as long as the class; when the class loader
+ * of a redeployed application is collected the constraints of its classes go with it. As the constraints of a class
+ * depend on the relevant annotations, their decorators and the excluded fields each class keeps one entry per such
+ * configuration. The key consists of names only, it doesn't keep any class loader reachable.
+ * <p>
+ * Since the annotations of a class never change, a cached entry never is stale. Extracted constraints aren't modified
+ * afterwards, they may be shared by concurrent parsers.
+ * </p>
+ * <p>
+ * The cache isn't bounded: each class keeps one entry per configuration it was parsed with for as long as the class
+ * is loaded. That's a single entry per class in the usual case of one configuration per application, but parsers
+ * created with ever changing custom annotations or excluded fields keep adding entries.
+ * </p>
+ */
+final class SharedConstraintCache {
+  private static final ClassValue<ConcurrentMap<Key, ClassConstraints>> CONSTRAINTS = new ClassValue<ConcurrentMap<Key,
+    ClassConstraints>>() {
+    @Override
+    protected ConcurrentMap<Key, ClassConstraints> computeValue(final Class<?> type) {
+      return new ConcurrentHashMap<>(2);
+    }
+  };
+
+  private final RelevantAnnotations relevantAnnotations;
+  private final List<String> excludedFields;
+  private final Key key;
+
+  /**
+   * @param relevantAnnotations relevant annotations, see {@link AnnotatedClass}
+   * @param excludedFields      fully qualified names of the fields to skip, see {@link AnnotatedClass}
+   */
+  SharedConstraintCache(final RelevantAnnotations relevantAnnotations, final List<String> excludedFields) {
+    this.relevantAnnotations = relevantAnnotations;
+    this.excludedFields = excludedFields;
+    this.key = new Key(relevantAnnotations.describe(), excludedFields);
+  }
+
+  /**
+   * Returns the constraints of a class, they are extracted only if no parser with the same configuration extracted
+   * them before. Concurrent callers may extract the constraints of the same class simultaneously, all of them get the
+   * same result.
+   *
+   * @param clazz model class
+   * @return constraints of the class
+   * @see AnnotatedClass#extractValidationRules()
+   */
+  ClassConstraints get(final Class<?> clazz) throws InstantiationException, IllegalAccessException,
+    IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
+    ConcurrentMap<Key, ClassConstraints> constraints = CONSTRAINTS.get(clazz);
+    ClassConstraints classConstraints = constraints.get(key);
+    if (classConstraints == null) {
+      classConstraints = new AnnotatedClass(clazz, excludedFields, relevantAnnotations).extractValidationRules();
+      ClassConstraints existing = constraints.putIfAbsent(key, classConstraints);
+      if (existing != null) {
+        classConstraints = existing;
+      }
+    }
+    return classConstraints;
+  }
+
+  /**
+   * Configuration the constraints of a class depend on.
+   */
+  private static final class Key {
+    private final Map<String, String> relevantAnnotations;
+    private final Set<String> excludedFields;
+
+    private Key(final Map<String, String> relevantAnnotations, final List<String> excludedFields) {
+      this.relevantAnnotations = relevantAnnotations;
+      this.excludedFields = new TreeSet<>(excludedFields);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return relevantAnnotations.equals(other.relevantAnnotations) && excludedFields.equals(other.excludedFields);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * relevantAnnotations.hashCode() + excludedFields.hashCode();
+    }
+  }
+}
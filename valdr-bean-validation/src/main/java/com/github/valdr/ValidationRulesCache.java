@@ -0,0 +1,259 @@
+package com.github.valdr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Holds the most recent {@link ValidationRulesSnapshot} produced by a {@link ConstraintParser}. Readers always get the
+ * current snapshot without blocking; a new snapshot is built according to the configured {@link RefreshPolicy} and
+ * swapped in atomically once it is complete. As long as there is no snapshot at all concurrent readers are coalesced
+ * on a single build: the first one starts it, all others wait for the same result (synchronously with {@link #get()},
+ * asynchronously with {@link #getAsync()}) rather than parsing the model classes themselves. All builds, initial
+ * ones, refreshes of stale snapshots and {@link #refresh() explicit refreshes}, run one after the other on a single
+ * build thread, hence a snapshot is never replaced by an older one.
+ *
+ * @see Options#getRefreshPolicy()
+ */
+public class ValidationRulesCache {
+  private final Logger logger = LoggerFactory.getLogger(ValidationRulesCache.class);
+  private final AtomicReference<ValidationRulesSnapshot> snapshot = new AtomicReference<>();
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+  private final AtomicReference<SettableFuture<ValidationRulesSnapshot>> pendingBuild = new AtomicReference<>();
+  private final ThreadPoolExecutor buildExecutor;
+  private final ConstraintParser parser;
+  private final RefreshPolicy refreshPolicy;
+  private final long refreshIntervalNanos;
+  private final Ticker ticker;
+
+  /**
+   * Constructor.
+   *
+   * @param parser  parser used to (re-)build the validation rules
+   * @param options configuration defining the refresh policy
+   */
+  public ValidationRulesCache(final ConstraintParser parser, final Options options) {
+    this(parser, options, Ticker.systemTicker());
+  }
+
+  ValidationRulesCache(final ConstraintParser parser, final Options options, final Ticker ticker) {
+    this.parser = parser;
+    this.refreshPolicy = options.getRefreshPolicy();
+    this.refreshIntervalNanos = refreshPolicy == RefreshPolicy.INTERVAL ? TimeUnit.SECONDS.toNanos(options
+      .getRefreshInterval()) : Long.MAX_VALUE;
+    this.ticker = ticker;
+    // a single build thread which only exists while there is something to build
+    this.buildExecutor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<Runnable>(),
+      new ThreadFactoryBuilder().setNameFormat("valdr-rules-build-%d").setDaemon(true).build());
+    this.buildExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Returns the current snapshot. If there is none yet the calling thread waits until it's built, by a build it
+   * started or by the one already in flight. If the current snapshot is stale according to the
+   * {@link RefreshPolicy#INTERVAL} policy one caller waits for it to be rebuilt while all others continue to get the
+   * stale one.
+   *
+   * @return current snapshot
+   * @throws IllegalStateException if the snapshot has to be built and parsing fails
+   */
+  public ValidationRulesSnapshot get() {
+    ValidationRulesSnapshot current = snapshot.get();
+    if (current == null) {
+      return waitFor(buildCoalesced());
+    }
+    if (isStale(current) && rebuilding.compareAndSet(false, true)) {
+      try {
+        return waitFor(submitRebuild());
+      } catch (IllegalStateException e) {
+        logger.error("Failed to refresh validation rules, continuing to serve the previous ones.", e);
+      } finally {
+        rebuilding.set(false);
+      }
+    }
+    return snapshot.get();
+  }
+
+  /**
+   * Like {@link #get()} but never blocks. If there is no snapshot yet the returned future completes once the single
+   * in-flight build, started on a background thread if necessary, completes. A stale snapshot is returned right away
+   * while it's rebuilt in the background.
+   *
+   * @return future of the current snapshot, failing with {@link IllegalStateException} if the snapshot has to be
+   * built and parsing fails
+   */
+  public ListenableFuture<ValidationRulesSnapshot> getAsync() {
+    ValidationRulesSnapshot current = snapshot.get();
+    if (current == null) {
+      return buildCoalesced();
+    }
+    if (isStale(current) && rebuilding.compareAndSet(false, true)) {
+      buildExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            rebuild();
+          } catch (IllegalStateException e) {
+            logger.error("Failed to refresh validation rules, continuing to serve the previous ones.", e);
+          } finally {
+            rebuilding.set(false);
+          }
+        }
+      });
+    }
+    return Futures.immediateFuture(current);
+  }
+
+  /**
+   * @return whether there is a snapshot, i.e. {@link #get()} returns without building one
+   */
+  public boolean isReady() {
+    return snapshot.get() != null;
+  }
+
+  /**
+   * Stops the build thread and releases the threads of the parser. Builds which are already running are completed, no
+   * snapshot can be built afterwards.
+   */
+  public void shutdown() {
+    if (buildExecutor.isShutdown()) {
+      return;
+    }
+    // queued behind the background builds, which therefore still have the parser's threads
+    buildExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        parser.shutdown();
+      }
+    });
+    buildExecutor.shutdown();
+  }
+
+  /**
+   * Re-parses the model classes and swaps in the new snapshot. This is the admin hook for the
+   * {@link RefreshPolicy#ON_DEMAND} policy; it's ignored if the policy is {@link RefreshPolicy#NEVER}. The rebuild is
+   * queued behind the build in flight, if any, and the calling thread waits for it.
+   *
+   * @return the snapshot that is current after the refresh
+   * @throws IllegalStateException if parsing fails, the previous snapshot remains in place
+   */
+  public ValidationRulesSnapshot refresh() {
+    if (refreshPolicy == RefreshPolicy.NEVER) {
+      logger.warn("Ignoring refresh request because refresh policy is {}.", refreshPolicy);
+      return get();
+    }
+    return waitFor(submitRebuild());
+  }
+
+  /**
+   * Joins the initial build in flight or starts a new one if there is none. Failed builds are not remembered, the next
+   * caller starts another one.
+   */
+  private ListenableFuture<ValidationRulesSnapshot> buildCoalesced() {
+    while (true) {
+      ValidationRulesSnapshot current = snapshot.get();
+      if (current != null) {
+        return Futures.immediateFuture(current);
+      }
+      SettableFuture<ValidationRulesSnapshot> pending = pendingBuild.get();
+      if (pending != null) {
+        return pending;
+      }
+      final SettableFuture<ValidationRulesSnapshot> build = SettableFuture.create();
+      if (pendingBuild.compareAndSet(null, build)) {
+        buildExecutor.execute(new Runnable() {
+          @Override
+          public void run() {
+            ValidationRulesSnapshot rebuilt;
+            try {
+              rebuilt = rebuild();
+            } catch (RuntimeException | Error e) {
+              // cleared before completing such that callers woken up by the failure can start another build
+              pendingBuild.compareAndSet(build, null);
+              build.setException(e);
+              return;
+            }
+            pendingBuild.compareAndSet(build, null);
+            build.set(rebuilt);
+          }
+        });
+        return build;
+      }
+    }
+  }
+
+  /**
+   * Queues a rebuild on the build thread.
+   */
+  private ListenableFuture<ValidationRulesSnapshot> submitRebuild() {
+    ListenableFutureTask<ValidationRulesSnapshot> rebuild = ListenableFutureTask.create(
+      new Callable<ValidationRulesSnapshot>() {
+        @Override
+        public ValidationRulesSnapshot call() {
+          return rebuild();
+        }
+      });
+    buildExecutor.execute(rebuild);
+    return rebuild;
+  }
+
+  private ValidationRulesSnapshot waitFor(final ListenableFuture<ValidationRulesSnapshot> build) {
+    try {
+      return Uninterruptibles.getUninterruptibly(build);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new IllegalStateException("Failed to build validation rules.", e.getCause());
+    }
+  }
+
+  private boolean isStale(final ValidationRulesSnapshot current) {
+    return ticker.read() - current.getCreatedAt() >= refreshIntervalNanos;
+  }
+
+  private ValidationRulesSnapshot rebuild() {
+    ValidationRulesSnapshot rebuilt = build();
+    snapshot.set(rebuilt);
+    return rebuilt;
+  }
+
+  private ValidationRulesSnapshot build() {
+    long start = ticker.read();
+    try {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      SortedMap<String, SortedSet<String>> packageNames = parser.parseWithPackageNames(outputStream);
+      byte[] json = outputStream.toByteArray();
+      long parsed = ticker.read();
+      logger.info("Built validation rules ({} bytes) in {} ms.", json.length, TimeUnit.NANOSECONDS.toMillis(parsed
+        - start));
+      // unchanged rules keep their date, clients revalidating by If-Modified-Since would fetch them again otherwise
+      ValidationRulesSnapshot current = snapshot.get();
+      long lastModified = current != null && Arrays.equals(current.getJson(), json) ? current.getLastModified()
+        : System.currentTimeMillis();
+      ValidationRulesSnapshot built = new ValidationRulesSnapshot(json, packageNames, ticker.read(), lastModified);
+      logger.info("Encoded and indexed validation rules in {} ms.", TimeUnit.NANOSECONDS.toMillis(ticker.read()
+        - parsed));
+      return built;
+    } catch (ReflectiveOperationException | IOException e) {
+      throw new IllegalStateException("Failed to parse validation rules.", e);
+    }
+  }
+}
@@ -5,24 +5,62 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
-import java.lang.reflect.InvocationTargetException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.valdr.serializer.SerializationContext;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 /**
- * <p>Produces JSON validation rules on the fly parsing model classes in your classpath. Upon each request the
+ * <p>Produces JSON validation rules on the fly parsing model classes in your classpath. Upon initialization the
  * configured model packages in the classpath are parsed for classes containing supported or
- * custom Bean Validation annotations. The Servlet then builds and returns a JSON document with all validation rules
- * (i.e. Bean Validation constraints). The JSON document adheres to structure specified by valdr.</p>
+ * custom Bean Validation annotations. The Servlet then builds a JSON document with all validation rules
+ * (i.e. Bean Validation constraints) and returns it upon each request. The JSON document adheres to structure
+ * specified by valdr. Whether and when the document is rebuilt is defined by the configured {@link RefreshPolicy}; the
+ * {@link ValidationRulesCache} in use is available as {@link ServletContext} attribute named
+ * {@link #RULES_CACHE_ATTRIBUTE} followed by the Servlet name (for on-demand refreshes).</p>
+ *
+ * <p>Each response carries an {@code ETag} and a {@code Last-Modified} header. Conditional requests
+ * ({@code If-None-Match}, {@code If-Modified-Since}) for unchanged rules are answered with "304 Not Modified". The
+ * rules are sent compressed if the client accepts one of the {@link ContentEncoding}s, and in a binary
+ * {@link OutputFormat} (Smile, CBOR) if the client's {@code Accept} header prefers one; encoding and compression happen
+ * once per snapshot rather than per request.</p>
+ *
+ * <p>Clients needing the rules of a few classes only can request a sub document: by class name in the path (e.g.
+ * {@code /validationRules/Person}, requires a mapping like {@code /validationRules/*}), by a comma separated list of
+ * class names ({@code ?classes=Person,Address}) or by package ({@code ?package=com.company.model}, includes
+ * sub-packages). Class names are the ones used in the document (see {@link Options#getOutputFullTypeName()}). Sub
+ * documents are concatenated from pre-serialized per-class fragments, the model classes aren't parsed again. Rules
+ * generated at compile time with simple class names don't tell the packages of the classes, selecting by package is
+ * answered with "400 Bad Request" then.</p>
+ *
+ * <p>Requests arriving while there are no rules yet (e.g. because the initial build failed) wait for a single build
+ * shared by all of them. If the Servlet is declared with {@code <async-supported>true</async-supported>} they're
+ * parked asynchronously rather than blocking a container thread each.</p>
+ *
+ * <p>By default the rules are built on a background thread during initialization (see
+ * {@link Options#getWarmUpInBackground()}), declare the Servlet with {@code load-on-startup} to start right at
+ * deployment. Until they're ready, requests either wait or, if {@link Options#getRetryAfter()} is configured, are
+ * answered with "503 Service Unavailable" and a {@code Retry-After} header such that load balancers can hold back
+ * traffic. {@link #isReady()} tells whether the rules are ready.</p>
  *
  * Servlet can be configured using following {@link javax.servlet.ServletConfig} init parameters (* = mandatory):
  * <ul>
@@ -33,11 +71,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * @see Options
  */
 public class ValidationRulesServlet extends HttpServlet {
+  /**
+   * Prefix of the {@link ServletContext} attribute under which the {@link ValidationRulesCache} is published.
+   */
+  public static final String RULES_CACHE_ATTRIBUTE = ValidationRulesCache.class.getName() + ".";
+
   private final Logger logger = LoggerFactory.getLogger(ValidationRulesServlet.class);
   private boolean correctlyConfigured = false;
   private String corsAllowOriginPattern;
+  private String cacheControl;
+  private Long retryAfter;
   private String invalidConfigurationMessage;
-  private ConstraintParser parser;
+  private ValidationRulesCache rulesCache;
 
   @Override
   public void init(final ServletConfig config) throws ServletException {
@@ -47,26 +92,157 @@ public class ValidationRulesServlet extends HttpServlet {
     invalidConfigurationMessage = validate(options);
     correctlyConfigured = StringUtils.isEmpty(invalidConfigurationMessage);
     corsAllowOriginPattern = options.getCorsAllowOriginPattern();
-
-    parser = new ConstraintParser(options);
+    cacheControl = options.getCacheControl();
 
     logConfigurationStatus();
     logCorsStatus();
+
+    if (correctlyConfigured) {
+      rulesCache = new ValidationRulesCache(new ConstraintParser(options), options);
+      publishRulesCache();
+      retryAfter = options.getRetryAfter();
+      if (Boolean.FALSE.equals(options.getWarmUpInBackground())) {
+        buildInitialRules();
+      } else {
+        warmUp();
+      }
+    }
   }
 
   @Override
   protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws ServletException, IOException {
     if (correctlyConfigured) {
-      String json = null;
+      ListenableFuture<ValidationRulesSnapshot> snapshot = rulesCache.getAsync();
+      if (!snapshot.isDone() && retryAfter != null) {
+        sendErrorNotReady(response);
+      } else if (snapshot.isDone() || !request.isAsyncSupported()) {
+        serve(request, response, snapshot);
+      } else {
+        serveAsync(request, snapshot);
+      }
+    } else {
+      sendErrorInvalidConfiguration(response);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (rulesCache != null) {
+      rulesCache.shutdown();
+    }
+    super.destroy();
+  }
+
+  /**
+   * Parks the request until the snapshot is built rather than blocking a container thread. The response is written
+   * on a container thread, too.
+   */
+  private void serveAsync(final HttpServletRequest request, final ListenableFuture<ValidationRulesSnapshot> snapshot) {
+    final AsyncContext asyncContext = request.startAsync();
+    snapshot.addListener(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          asyncContext.start(new Runnable() {
+            @Override
+            public void run() {
+              try {
+                serve((HttpServletRequest) asyncContext.getRequest(), (HttpServletResponse) asyncContext
+                  .getResponse(), snapshot);
+              } catch (IOException e) {
+                logger.warn("Cannot send validation rules.", e);
+              } finally {
+                asyncContext.complete();
+              }
+            }
+          });
+        } catch (IllegalStateException e) {
+          // the container already gave up on the request, e.g. because of an async timeout
+          logger.warn("Cannot send validation rules, request is no longer available.", e);
+        }
+      }
+    }, MoreExecutors.sameThreadExecutor());
+  }
+
+  private void serve(final HttpServletRequest request, final HttpServletResponse response,
+                     final ListenableFuture<ValidationRulesSnapshot> snapshot) throws IOException {
     try {
-        json = parser.parse();
-    } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException | NoSuchMethodException | SecurityException e) {
-        // TODO Auto-generated catch block
-        e.printStackTrace();
+      serve(request, response, Uninterruptibles.getUninterruptibly(snapshot));
+    } catch (ExecutionException e) {
+      logger.error("Cannot serve validation rules.", e.getCause());
+      response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getCause().getMessage());
     }
-      returnJson(response, json);
+  }
+
+  private void serve(final HttpServletRequest request, final HttpServletResponse response,
+                     final ValidationRulesSnapshot snapshot) throws IOException {
+    OutputFormat format = OutputFormat.negotiate(request.getHeader("Accept"));
+    ContentEncoding contentEncoding = ContentEncoding.negotiate(request.getHeader("Accept-Encoding"));
+    String pathClassName = StringUtils.strip(request.getPathInfo(), "/");
+    if (StringUtils.isNotEmpty(pathClassName) && !snapshot.hasClass(pathClassName)) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND, "No validation rules for class " + pathClassName);
+    } else if (request.getParameter("package") != null && !snapshot.canSelectByPackage()) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Classes cannot be selected by package, the validation "
+        + "rules were generated at compile time with simple class names.");
+    } else if (StringUtils.isNotEmpty(pathClassName) || request.getParameter("classes") != null || request
+      .getParameter("package") != null) {
+      returnSubDocument(request, response, snapshot, selectClassNames(request, pathClassName, snapshot), format,
+        contentEncoding);
+    } else if (isNotModified(request, snapshot, null)) {
+      returnNotModified(response, snapshot, snapshot.getEtag(format, contentEncoding));
     } else {
-      sendErrorInvalidConfiguration(response);
+      returnRules(response, snapshot, snapshot.getBody(format, contentEncoding), snapshot.getEtag(format,
+        contentEncoding), format, contentEncoding);
+    }
+  }
+
+  /**
+   * Tells whether the validation rules have been built, e.g. for readiness checks during rolling deployments.
+   *
+   * @return true if requests are answered right away
+   */
+  public boolean isReady() {
+    return correctlyConfigured && rulesCache.isReady();
+  }
+
+  /**
+   * Returns the cache holding the validation rules served by this Servlet.
+   *
+   * @return rules cache or {@code null} if the Servlet is not correctly configured
+   */
+  public ValidationRulesCache getRulesCache() {
+    return rulesCache;
+  }
+
+  private void warmUp() {
+    final long start = System.nanoTime();
+    logger.info("Building validation rules in the background.");
+    Futures.addCallback(rulesCache.getAsync(), new FutureCallback<ValidationRulesSnapshot>() {
+      @Override
+      public void onSuccess(final ValidationRulesSnapshot snapshot) {
+        logger.info("Validation rules are ready, warm-up took {} ms.", TimeUnit.NANOSECONDS.toMillis(System.nanoTime()
+          - start));
+      }
+
+      @Override
+      public void onFailure(final Throwable t) {
+        logger.error("Failed to build initial validation rules, retrying upon first request.", t);
+      }
+    });
+  }
+
+  private void buildInitialRules() {
+    try {
+      rulesCache.get();
+    } catch (IllegalStateException e) {
+      logger.error("Failed to build initial validation rules, retrying upon first request.", e);
+    }
+  }
+
+  private void publishRulesCache() {
+    ServletContext servletContext = getServletConfig().getServletContext();
+    if (servletContext != null) {
+      servletContext.setAttribute(RULES_CACHE_ATTRIBUTE + getServletName(), rulesCache);
     }
   }
 
@@ -82,7 +258,7 @@ public class ValidationRulesServlet extends HttpServlet {
         logger.info("Building parser configuration from configured file path '{}'.", configFile);
         inputStream = new FileInputStream(new File(configFile));
       }
-      return new ObjectMapper().readValue(inputStream, Options.class);
+      return SerializationContext.getObjectMapper().readValue(inputStream, Options.class);
     } catch (IOException e) {
       throw new IllegalArgumentException("Cannot read config file.", e);
     } finally {
@@ -116,17 +292,122 @@ public class ValidationRulesServlet extends HttpServlet {
     logger.info(logMsg, corsAllowOriginPattern);
   }
 
+  private void sendErrorNotReady(final HttpServletResponse response) throws IOException {
+    setCorsHeader(response);
+    response.setHeader("Retry-After", String.valueOf(retryAfter));
+    response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Validation rules are not ready yet.");
+  }
+
   private void sendErrorInvalidConfiguration(final HttpServletResponse response) throws IOException {
     response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, invalidConfigurationMessage);
   }
 
-  private void returnJson(final HttpServletResponse response, final String json) throws IOException {
+  /**
+   * Selects the classes named in the path, listed in the {@code classes} parameter or contained in the package named
+   * by the {@code package} parameter. Unknown class names are ignored.
+   */
+  private SortedSet<String> selectClassNames(final HttpServletRequest request, final String pathClassName,
+                                             final ValidationRulesSnapshot snapshot) {
+    SortedSet<String> classNames = new TreeSet<>();
+    if (StringUtils.isNotEmpty(pathClassName)) {
+      classNames.add(pathClassName);
+    }
+    String classes = request.getParameter("classes");
+    if (classes != null) {
+      for (String className : StringUtils.split(classes, ',')) {
+        classNames.add(className.trim());
+      }
+    }
+    String packageName = StringUtils.trimToNull(request.getParameter("package"));
+    if (packageName != null) {
+      classNames.addAll(snapshot.getClassNames(packageName));
+    }
+    return classNames;
+  }
+
+  /**
+   * Sub documents are concatenated from the fragments of the snapshot on each request. They're small, therefore
+   * encoding them per request is cheaper than keeping them around; their entity tag is derived from their content.
+   */
+  private void returnSubDocument(final HttpServletRequest request, final HttpServletResponse response,
+                                 final ValidationRulesSnapshot snapshot, final SortedSet<String> classNames,
+                                 final OutputFormat format, final ContentEncoding contentEncoding) throws IOException {
+    byte[] json = snapshot.getJson(classNames);
+    String etag = ValidationRulesSnapshot.createEtag(Hashing.sha256().hashBytes(json).toString(), format,
+      contentEncoding);
+    if (isNotModified(request, snapshot, etag)) {
+      returnNotModified(response, snapshot, etag);
+    } else {
+      returnRules(response, snapshot, contentEncoding.encode(format.encode(json)), etag, format, contentEncoding);
+    }
+  }
+
+  /**
+   * Evaluates the request preconditions against the snapshot. As mandated by RFC 7232 {@code If-Modified-Since} is
+   * only considered if the request doesn't contain an {@code If-None-Match} header.
+   *
+   * @param etag entity tag of the selected representation, {@code null} to accept the tag of any representation of the
+   *             snapshot
+   */
+  private boolean isNotModified(final HttpServletRequest request, final ValidationRulesSnapshot snapshot,
+                                final String etag) {
+    String ifNoneMatch = request.getHeader("If-None-Match");
+    if (ifNoneMatch != null) {
+      return matchesEtag(ifNoneMatch, snapshot, etag);
+    }
+    long ifModifiedSince;
+    try {
+      ifModifiedSince = request.getDateHeader("If-Modified-Since");
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    return ifModifiedSince != -1 && snapshot.getLastModified() <= ifModifiedSince;
+  }
+
+  private boolean matchesEtag(final String ifNoneMatch, final ValidationRulesSnapshot snapshot, final String etag) {
+    for (String candidate : StringUtils.split(ifNoneMatch, ',')) {
+      String trimmed = candidate.trim();
+      if ("*".equals(trimmed)) {
+        return true;
+      }
+      if (etag == null ? snapshot.hasEtag(trimmed) : etag.equals(StringUtils.removeStart(trimmed, "W/"))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void returnNotModified(final HttpServletResponse response, final ValidationRulesSnapshot snapshot,
+                                 final String etag) {
+    setCorsHeader(response);
+    setCachingHeaders(response, snapshot, etag);
+    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+  }
+
+  private void returnRules(final HttpServletResponse response, final ValidationRulesSnapshot snapshot,
+                           final byte[] body, final String etag, final OutputFormat format,
+                           final ContentEncoding contentEncoding) throws IOException {
     setCorsHeader(response);
-    response.setContentType("application/json;charset=UTF-8");
-    response.setContentLength(json.getBytes("utf-8").length);
-    PrintWriter writer = response.getWriter();
-    writer.write(json);
-    writer.close();
+    setCachingHeaders(response, snapshot, etag);
+    response.setContentType(format.getContentType());
+    if (contentEncoding != ContentEncoding.IDENTITY) {
+      response.setHeader("Content-Encoding", contentEncoding.getToken());
+    }
+    response.setContentLength(body.length);
+    ServletOutputStream outputStream = response.getOutputStream();
+    outputStream.write(body);
+    outputStream.close();
+  }
+
+  private void setCachingHeaders(final HttpServletResponse response, final ValidationRulesSnapshot snapshot,
+                                   final String etag) {
+    response.addHeader("Vary", "Accept-Encoding");
+    response.addHeader("Vary", "Accept");
+    response.setHeader("ETag", etag);
+    response.setDateHeader("Last-Modified", snapshot.getLastModified());
+    if (StringUtils.isNotEmpty(cacheControl)) {
+      response.setHeader("Cache-Control", cacheControl);
+    }
   }
 
   private void setCorsHeader(final HttpServletResponse response) {
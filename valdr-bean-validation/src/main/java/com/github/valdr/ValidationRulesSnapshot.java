@@ -0,0 +1,212 @@
+package com.github.valdr;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+import com.google.common.hash.Hashing;
+
+/**
+ * Immutable result of a single parser run as it is served by {@link ValidationRulesServlet}. The document is kept
+ * pre-encoded in every {@link OutputFormat}, and pre-compressed in every supported {@link ContentEncoding}, so that
+ * it can be written to any number of responses without encoding or compressing it again. The HTTP validators (entity
+ * tags and last modification date) are computed once when the snapshot is created. Sub documents for a selection of
+ * classes are concatenated from an index of the per-class fragments of the JSON document.
+ */
+public class ValidationRulesSnapshot {
+  private final Map<OutputFormat, Map<ContentEncoding, byte[]>> bodies = new EnumMap<>(OutputFormat.class);
+  private final Map<OutputFormat, Map<ContentEncoding, String>> etags = new EnumMap<>(OutputFormat.class);
+  private final ClassFragmentIndex fragmentIndex;
+  private final Map<String, SortedSet<String>> packageNames;
+  private final long createdAt;
+  private final long lastModified;
+
+  /**
+   * @param json         UTF-8 encoded JSON document
+   * @param packageNames package names per class name as it appears in the document, {@code null} if they're unknown
+   * @param createdAt    {@link com.google.common.base.Ticker} time in nanoseconds at which the document was created
+   * @param lastModified wall-clock time in milliseconds at which the document was last changed
+   */
+  ValidationRulesSnapshot(final byte[] json, final Map<String, SortedSet<String>> packageNames, final long createdAt,
+                          final long lastModified) {
+    this.fragmentIndex = new ClassFragmentIndex(json);
+    this.packageNames = packageNames;
+    this.createdAt = createdAt;
+    // HTTP dates have a resolution of seconds, anything below would break If-Modified-Since comparisons
+    this.lastModified = TimeUnit.SECONDS.toMillis(TimeUnit.MILLISECONDS.toSeconds(lastModified));
+    String hash = Hashing.sha256().hashBytes(json).toString();
+    for (OutputFormat format : OutputFormat.values()) {
+      byte[] document = format.encode(json);
+      Map<ContentEncoding, byte[]> formatBodies = new EnumMap<>(ContentEncoding.class);
+      Map<ContentEncoding, String> formatEtags = new EnumMap<>(ContentEncoding.class);
+      for (ContentEncoding contentEncoding : ContentEncoding.values()) {
+        formatBodies.put(contentEncoding, contentEncoding.encode(document));
+        // each encoded representation needs its own strong entity tag
+        formatEtags.put(contentEncoding, createEtag(hash, format, contentEncoding));
+      }
+      bodies.put(format, formatBodies);
+      etags.put(format, formatEtags);
+    }
+  }
+
+  /**
+   * @param hash            hash of the JSON document
+   * @param format          format of the representation
+   * @param contentEncoding content coding of the representation
+   * @return strong entity tag of the representation including the surrounding double quotes
+   */
+  static String createEtag(final String hash, final OutputFormat format, final ContentEncoding contentEncoding) {
+    StringBuilder etag = new StringBuilder("\"").append(hash);
+    if (format != OutputFormat.JSON) {
+      etag.append('-').append(format.getToken());
+    }
+    if (contentEncoding != ContentEncoding.IDENTITY) {
+      etag.append('-').append(contentEncoding.getToken());
+    }
+    return etag.append('"').toString();
+  }
+
+  /**
+   * Returns the UTF-8 encoded JSON document. The returned array is shared between all readers of this snapshot and
+   * must not be modified.
+   *
+   * @return JSON document
+   */
+  public byte[] getJson() {
+    return getBody(ContentEncoding.IDENTITY);
+  }
+
+  /**
+   * Returns the UTF-8 encoded JSON document encoded with the passed content coding. The returned array is shared
+   * between all readers of this snapshot and must not be modified.
+   *
+   * @param contentEncoding content coding
+   * @return encoded JSON document
+   */
+  public byte[] getBody(final ContentEncoding contentEncoding) {
+    return getBody(OutputFormat.JSON, contentEncoding);
+  }
+
+  /**
+   * Returns the document in the passed format encoded with the passed content coding. The returned array is shared
+   * between all readers of this snapshot and must not be modified.
+   *
+   * @param format          format of the document
+   * @param contentEncoding content coding
+   * @return encoded document
+   */
+  public byte[] getBody(final OutputFormat format, final ContentEncoding contentEncoding) {
+    return bodies.get(format).get(contentEncoding);
+  }
+
+  /**
+   * Returns the strong entity tag of the uncompressed JSON document, i.e. the quoted SHA-256 hash of its content.
+   *
+   * @return entity tag including the surrounding double quotes
+   */
+  public String getEtag() {
+    return getEtag(ContentEncoding.IDENTITY);
+  }
+
+  /**
+   * Returns the strong entity tag of the JSON document encoded with the passed content coding.
+   *
+   * @param contentEncoding content coding
+   * @return entity tag including the surrounding double quotes
+   */
+  public String getEtag(final ContentEncoding contentEncoding) {
+    return getEtag(OutputFormat.JSON, contentEncoding);
+  }
+
+  /**
+   * Returns the strong entity tag of the document in the passed format encoded with the passed content coding.
+   *
+   * @param format          format of the document
+   * @param contentEncoding content coding
+   * @return entity tag including the surrounding double quotes
+   */
+  public String getEtag(final OutputFormat format, final ContentEncoding contentEncoding) {
+    return etags.get(format).get(contentEncoding);
+  }
+
+  /**
+   * @return names of all classes in the document as they appear in the document, sorted
+   */
+  public SortedSet<String> getClassNames() {
+    return fragmentIndex.getNames();
+  }
+
+  /**
+   * @param packageName package name
+   * @return names of the classes in the package and its sub-packages as they appear in the document, sorted
+   * @throws IllegalStateException if classes cannot be selected by package, see {@link #canSelectByPackage()}
+   */
+  public SortedSet<String> getClassNames(final String packageName) {
+    if (!canSelectByPackage()) {
+      throw new IllegalStateException("Packages of the classes in the validation rules are unknown.");
+    }
+    return fragmentIndex.getNamesInPackage(packageName, packageNames);
+  }
+
+  /**
+   * Tells whether classes can be selected by package. That's not the case for a document with simple class names
+   * generated at compile time, as it doesn't record the packages of the classes.
+   *
+   * @return whether {@link #getClassNames(String)} may be called
+   */
+  public boolean canSelectByPackage() {
+    return packageNames != null || fragmentIndex.hasQualifiedNamesOnly();
+  }
+
+  /**
+   * @param className name of a class as it appears in the document
+   * @return whether the document contains the class
+   */
+  public boolean hasClass(final String className) {
+    return fragmentIndex.contains(className);
+  }
+
+  /**
+   * Returns the sub document containing only the passed classes. It's concatenated from the pre-serialized fragments
+   * of the classes, nothing is parsed or serialized again.
+   *
+   * @param classNames names of the classes as they appear in the document, unknown names are ignored
+   * @return UTF-8 encoded JSON document, a new array on every call
+   */
+  public byte[] getJson(final Collection<String> classNames) {
+    return fragmentIndex.select(classNames);
+  }
+
+  /**
+   * Checks whether the passed entity tag is the one of any encoded representation of this snapshot. Weak entity tags
+   * are compared by their opaque value.
+   *
+   * @param etag entity tag including surrounding double quotes, optionally prefixed with {@code W/}
+   * @return true if the tag denotes this snapshot
+   */
+  public boolean hasEtag(final String etag) {
+    String opaqueTag = etag.startsWith("W/") ? etag.substring(2) : etag;
+    for (Map<ContentEncoding, String> formatEtags : etags.values()) {
+      if (formatEtags.containsValue(opaqueTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return wall-clock time in milliseconds (truncated to seconds) at which the document was last changed, a rebuild
+   * producing the same document keeps the time of the previous snapshot
+   */
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  /**
+   * @return {@link com.google.common.base.Ticker} time in nanoseconds at which the document was created
+   */
+  long getCreatedAt() {
+    return createdAt;
+  }
+}
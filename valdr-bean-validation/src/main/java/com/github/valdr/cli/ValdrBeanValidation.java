@@ -1,22 +1,27 @@
 package com.github.valdr.cli;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.valdr.ConstraintParser;
 import com.github.valdr.Options;
+import com.github.valdr.OutputFormat;
+import com.github.valdr.serializer.SerializationContext;
 
 /**
  * Command line client to print the Bean Validation JSON model to system out or a defined output file. Usage is as
@@ -48,10 +53,12 @@ public final class ValdrBeanValidation {
       validate(options);
       ConstraintParser parser = new ConstraintParser(options);
       try {
-        output(parser, options.getOutputFile());
+        output(parser, options.getOutputFile(), options.getOutputFormat());
       } catch (IOException | InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException | NoSuchMethodException | SecurityException e) {
           System.out.println(e);
           throw new RuntimeException(e);
+      } finally {
+        parser.shutdown();
       }
     } catch (IncompleteCliException e) {
       // If the command line is not complete just print usage and help
@@ -63,6 +70,7 @@ public final class ValdrBeanValidation {
     InputStream inputStream = null;
     String configFile = cli.getOptionValue("cf");
     String outputFile = cli.getOptionValue("outputFile");
+    String outputFormat = cli.getOptionValue("outputFormat");
 
     try {
       if (StringUtils.isEmpty(configFile)) {
@@ -74,11 +82,15 @@ public final class ValdrBeanValidation {
         System.out.println("Building parser configuration from configured file path '" + configFile + "'.");
         inputStream = new FileInputStream(new File(configFile));
       }
-      Options options = new ObjectMapper().readValue(inputStream, Options.class);
+      Options options = SerializationContext.getObjectMapper().readValue(inputStream, Options.class);
       if (StringUtils.isNotEmpty(outputFile)) {
         System.out.println("Setting 'outputFile' to '" + outputFile + "' as passed to CLI.");
         options.setOutputFile(outputFile);
       }
+      if (StringUtils.isNotEmpty(outputFormat)) {
+        System.out.println("Setting 'outputFormat' to '" + outputFormat + "' as passed to CLI.");
+        options.setOutputFormat(parseOutputFormat(outputFormat));
+      }
       return options;
     } catch (IOException e) {
       throw new IllegalArgumentException("Cannot read config file.", e);
@@ -87,6 +99,15 @@ public final class ValdrBeanValidation {
     }
   }
 
+  private static OutputFormat parseOutputFormat(final String outputFormat) {
+    try {
+      return OutputFormat.valueOf(outputFormat.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new Options.InvalidConfigurationException("Output format must be one of " + StringUtils.join(OutputFormat
+        .values(), ", ").toLowerCase(Locale.ROOT) + " but was '" + outputFormat + "'.");
+    }
+  }
+
   private static void validate(final Options options) {
     options.validate();
     System.out.println("Provided configuration validated: ok.");
@@ -119,19 +140,44 @@ public final class ValdrBeanValidation {
       "path to JSON config file, if omitted valdr-bean-validation.json is expected at root of class path"));
     options.addOption(new Option("outputFile", true,
       "path to output file, which will be used, if no outputFile is specified in the JSON config"));
+    options.addOption(new Option("outputFormat", true,
+      "format of the output (json, smile or cbor), overrides the outputFormat specified in the JSON config"));
     return options;
   }
 
-  private static void output(final ConstraintParser parser, final String outputFile) throws IOException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
-    String output = parser.parse();
+  private static void output(final ConstraintParser parser, final String outputFile, final OutputFormat format) throws IOException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
     if (StringUtils.isEmpty(outputFile)) {
-      System.out.println(output);
+      parser.parse(System.out, format);
+      if (format == OutputFormat.JSON) {
+        System.out.println();
+      }
     } else {
-      File file = new File(outputFile);
-      file.getParentFile().mkdirs();
-      try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), "utf-8")) {
-        writer.write(output);
+      // written to a temporary file that replaces the output file only once complete, consumers never see a partial
+      // document and a failed run keeps the previous one
+      File file = new File(outputFile).getAbsoluteFile();
+      Files.createDirectories(file.getParentFile().toPath());
+      File temporaryFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+      boolean written = false;
+      try {
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(temporaryFile))) {
+          parser.parse(outputStream, format);
+        }
+        move(temporaryFile, file);
+        written = true;
+      } finally {
+        if (!written) {
+          Files.deleteIfExists(temporaryFile.toPath());
+        }
       }
     }
   }
+
+  private static void move(final File source, final File target) throws IOException {
+    try {
+      Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
 }
@@ -0,0 +1,32 @@
+package com.github.valdr.decorator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * All {@link DecoratorFactory}s registered as service provider, keyed by the name of the annotation class they
+ * decorate. If several factories decorate the same annotation the one found last on the classpath wins.
+ */
+public class DecoratorFactories {
+  private final Map<String, DecoratorFactory> factories = new HashMap<>();
+
+  /**
+   * Constructor, loads the registered factories.
+   *
+   * @param classLoader class loader used to find the service providers
+   */
+  public DecoratorFactories(final ClassLoader classLoader) {
+    for (DecoratorFactory factory : ServiceLoader.load(DecoratorFactory.class, classLoader)) {
+      factories.put(factory.getAnnotationClassName(), factory);
+    }
+  }
+
+  /**
+   * @param annotationClassName fully qualified name of an annotation class
+   * @return registered factory for the annotation or null if none is registered
+   */
+  public DecoratorFactory get(final String annotationClassName) {
+    return factories.get(annotationClassName);
+  }
+}
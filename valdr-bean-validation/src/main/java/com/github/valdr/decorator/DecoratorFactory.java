@@ -0,0 +1,24 @@
+package com.github.valdr.decorator;
+
+import com.github.valdr.ConstraintAttributes;
+
+/**
+ * Creates the decorators of one constraint annotation. Each {@link com.github.valdr.BuiltInConstraint} has a factory,
+ * additional factories (for custom annotations or to replace the decorator of a built-in constraint) are registered
+ * as service provider in {@code META-INF/services/com.github.valdr.decorator.DecoratorFactory}.
+ *
+ * @see DecoratorFactories
+ */
+public interface DecoratorFactory {
+
+  /**
+   * @return fully qualified name of the annotation class whose attributes this factory decorates
+   */
+  String getAnnotationClassName();
+
+  /**
+   * @param decoratee attributes of the annotation
+   * @return decorator wrapped around the attributes
+   */
+  AbstractConstraintAttributesDecorator createDecorator(ConstraintAttributes decoratee);
+}
@@ -18,4 +18,30 @@ public class NullDecorator extends AbstractConstraintAttributesDecorator {
   public Set<Map.Entry<String, Object>> entrySet() {
     return getDecoratee().entrySet();
   }
-}
\ No newline at end of file
+
+  /**
+   * Creates {@link NullDecorator}s for an annotation.
+   */
+  public static class Factory implements DecoratorFactory {
+    private final String annotationClassName;
+
+    /**
+     * Constructor.
+     *
+     * @param annotationClassName fully qualified name of the annotation class whose attributes are decorated
+     */
+    public Factory(final String annotationClassName) {
+      this.annotationClassName = annotationClassName;
+    }
+
+    @Override
+    public String getAnnotationClassName() {
+      return annotationClassName;
+    }
+
+    @Override
+    public AbstractConstraintAttributesDecorator createDecorator(final ConstraintAttributes decoratee) {
+      return new NullDecorator(decoratee);
+    }
+  }
+}
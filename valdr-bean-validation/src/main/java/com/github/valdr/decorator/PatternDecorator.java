@@ -3,6 +3,7 @@ package com.github.valdr.decorator;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import javax.validation.constraints.Pattern;
 
 import com.github.valdr.ConstraintAttributes;
 
@@ -47,4 +48,20 @@ public class PatternDecorator extends AbstractConstraintAttributesDecorator {
   private String javaToJavaScriptRegexpPattern(Map.Entry<String, Object> entry) {
     return "/" + entry.getValue() + "/";
   }
+
+  /**
+   * Creates {@link PatternDecorator}s.
+   */
+  public static class Factory implements DecoratorFactory {
+
+    @Override
+    public String getAnnotationClassName() {
+      return Pattern.class.getName();
+    }
+
+    @Override
+    public AbstractConstraintAttributesDecorator createDecorator(final ConstraintAttributes decoratee) {
+      return new PatternDecorator(decoratee);
+    }
+  }
 }
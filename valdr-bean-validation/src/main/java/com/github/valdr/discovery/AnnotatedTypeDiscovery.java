@@ -0,0 +1,38 @@
+package com.github.valdr.discovery;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Discovers classes annotated with one of a set of marker annotations (e.g. {@code javax.persistence.Entity}) and
+ * their sub classes.
+ */
+public final class AnnotatedTypeDiscovery implements ModelClassDiscovery {
+  private final Set<String> annotationNames;
+
+  /**
+   * @param annotationNames fully qualified names of the marker annotations
+   */
+  public AnnotatedTypeDiscovery(final Collection<String> annotationNames) {
+    this.annotationNames = new HashSet<>(annotationNames);
+  }
+
+  /**
+   * @return fully qualified names of the marker annotations
+   */
+  public Set<String> getAnnotationNames() {
+    return Collections.unmodifiableSet(annotationNames);
+  }
+
+  @Override
+  public boolean isModelClass(final TypeMetadata type) {
+    for (TypeMetadata current = type; current != null; current = current.getSuperclass()) {
+      if (!Collections.disjoint(current.getAnnotationNames(), annotationNames)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,31 @@
+package com.github.valdr.discovery;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Discovers any class with at least one field annotated with a constraint annotation, declared by the class itself or
+ * by a super class in the model packages. Suits DTOs and embeddables which aren't marked in any other way.
+ */
+public final class ConstrainedTypeDiscovery implements ModelClassDiscovery {
+  private final Set<String> constraintAnnotationNames;
+
+  /**
+   * @param constraintAnnotationNames fully qualified names of the built-in and custom constraint annotations
+   */
+  public ConstrainedTypeDiscovery(final Collection<String> constraintAnnotationNames) {
+    this.constraintAnnotationNames = new HashSet<>(constraintAnnotationNames);
+  }
+
+  @Override
+  public boolean isModelClass(final TypeMetadata type) {
+    for (TypeMetadata current = type; current != null; current = current.getSuperclass()) {
+      if (!Collections.disjoint(current.getFieldAnnotationNames(), constraintAnnotationNames)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
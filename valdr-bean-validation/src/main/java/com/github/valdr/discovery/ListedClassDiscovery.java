@@ -0,0 +1,24 @@
+package com.github.valdr.discovery;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Discovers the classes of an explicit list, provided they are in the model packages.
+ */
+public final class ListedClassDiscovery implements ModelClassDiscovery {
+  private final Set<String> classNames;
+
+  /**
+   * @param classNames fully qualified names of the model classes
+   */
+  public ListedClassDiscovery(final Collection<String> classNames) {
+    this.classNames = new HashSet<>(classNames);
+  }
+
+  @Override
+  public boolean isModelClass(final TypeMetadata type) {
+    return classNames.contains(type.getName());
+  }
+}
@@ -0,0 +1,82 @@
+package com.github.valdr.discovery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+import com.github.valdr.Options;
+
+/**
+ * All strategies configured in {@link Options} and all {@link ModelClassDiscovery}s registered as service provider. A
+ * class is a model class if any of them says so.
+ */
+public class ModelClassDiscoveries implements ModelClassDiscovery {
+  private static final String ENTITY_ANNOTATION_NAME = "javax.persistence.Entity";
+
+  private final List<ModelClassDiscovery> discoveries = new ArrayList<>();
+  private final AnnotatedTypeDiscovery annotatedTypeDiscovery;
+
+  /**
+   * Constructor, loads the registered strategies.
+   *
+   * @param options                   configuration of the built-in strategies
+   * @param constraintAnnotationNames names of the built-in and custom constraint annotations, see {@link
+   *                                  Options#getDiscoverConstrainedClasses()}
+   * @param classLoader               class loader used to find the service providers
+   */
+  public ModelClassDiscoveries(final Options options, final Collection<String> constraintAnnotationNames,
+                               final ClassLoader classLoader) {
+    annotatedTypeDiscovery = options.getModelAnnotations().isEmpty() ? null : new AnnotatedTypeDiscovery(options
+      .getModelAnnotations());
+    if (annotatedTypeDiscovery != null) {
+      discoveries.add(annotatedTypeDiscovery);
+    }
+    if (!options.getModelBaseTypes().isEmpty()) {
+      discoveries.add(new SubTypeDiscovery(options.getModelBaseTypes()));
+    }
+    if (!options.getModelClasses().isEmpty()) {
+      discoveries.add(new ListedClassDiscovery(options.getModelClasses()));
+    }
+    if (Boolean.TRUE.equals(options.getDiscoverConstrainedClasses())) {
+      discoveries.add(new ConstrainedTypeDiscovery(constraintAnnotationNames));
+    }
+    for (ModelClassDiscovery discovery : ServiceLoader.load(ModelClassDiscovery.class, classLoader)) {
+      discoveries.add(discovery);
+    }
+  }
+
+  /**
+   * @return whether model classes are only discovered by marker annotations, which classpath scanners index anyway
+   */
+  public boolean isAnnotationBased() {
+    return discoveries.size() == (annotatedTypeDiscovery == null ? 0 : 1);
+  }
+
+  /**
+   * @return whether model classes are only discovered by {@code javax.persistence.Entity}, the default and the only
+   * strategy the annotation processors of the valdr-bean-validation-processor module know
+   */
+  public boolean isEntityBased() {
+    return isAnnotationBased() && Collections.singleton(ENTITY_ANNOTATION_NAME).equals(getModelAnnotationNames());
+  }
+
+  /**
+   * @return fully qualified names of the marker annotations of model classes, see {@link Options#getModelAnnotations()}
+   */
+  public Set<String> getModelAnnotationNames() {
+    return annotatedTypeDiscovery == null ? Collections.<String>emptySet() : annotatedTypeDiscovery
+      .getAnnotationNames();
+  }
+
+  @Override
+  public boolean isModelClass(final TypeMetadata type) {
+    for (ModelClassDiscovery discovery : discoveries) {
+      if (discovery.isModelClass(type)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
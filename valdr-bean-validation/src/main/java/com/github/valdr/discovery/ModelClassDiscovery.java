@@ -0,0 +1,19 @@
+package com.github.valdr.discovery;
+
+/**
+ * Strategy which decides whether a class in the model packages is a model class, i.e. is parsed for constraints. The
+ * decision is taken on the class file, classes which aren't model classes are never loaded. The built-in strategies
+ * are configured in {@link com.github.valdr.Options}, additional strategies are registered as service provider in
+ * {@code META-INF/services/com.github.valdr.discovery.ModelClassDiscovery}. A class is a model class if any strategy
+ * says so.
+ *
+ * @see ModelClassDiscoveries
+ */
+public interface ModelClassDiscovery {
+
+  /**
+   * @param type metadata of a class in the model packages
+   * @return whether the class is a model class
+   */
+  boolean isModelClass(TypeMetadata type);
+}
@@ -0,0 +1,26 @@
+package com.github.valdr.discovery;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Discovers classes which extend or implement one of a set of base types, directly or through other classes in the
+ * model packages. The base types themselves aren't model classes unless they extend another base type.
+ */
+public final class SubTypeDiscovery implements ModelClassDiscovery {
+  private final Set<String> baseTypeNames;
+
+  /**
+   * @param baseTypeNames fully qualified names of the base classes and interfaces
+   */
+  public SubTypeDiscovery(final Collection<String> baseTypeNames) {
+    this.baseTypeNames = new HashSet<>(baseTypeNames);
+  }
+
+  @Override
+  public boolean isModelClass(final TypeMetadata type) {
+    return !Collections.disjoint(type.getSupertypeNames(), baseTypeNames);
+  }
+}
@@ -0,0 +1,36 @@
+package com.github.valdr.discovery;
+
+import java.util.Set;
+
+/**
+ * What is known about a class in the model packages before it is loaded, read from its class file.
+ */
+public interface TypeMetadata {
+
+  /**
+   * @return fully qualified (binary) class name
+   */
+  String getName();
+
+  /**
+   * @return fully qualified names of the annotations of the class itself (runtime retention only)
+   */
+  Set<String> getAnnotationNames();
+
+  /**
+   * @return fully qualified names of the annotations of the fields the class declares (runtime retention only)
+   */
+  Set<String> getFieldAnnotationNames();
+
+  /**
+   * @return metadata of the super class or {@code null} if the super class is {@link Object} or not in the model
+   * packages
+   */
+  TypeMetadata getSuperclass();
+
+  /**
+   * @return fully qualified names of all super classes and implemented interfaces, as far as the hierarchy is known;
+   * the hierarchy of types outside the model packages is unknown
+   */
+  Set<String> getSupertypeNames();
+}
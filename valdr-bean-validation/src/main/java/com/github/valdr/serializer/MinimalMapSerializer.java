@@ -2,15 +2,18 @@ package com.github.valdr.serializer;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.github.valdr.MinimalMap;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * Serializes an {@link com.github.valdr.MinimalMap} like any other JSON map. All values are serialized by iterating
- * over the entry set.
+ * over the entry set, sorted by key if {@link SerializationFeature#ORDER_MAP_ENTRIES_BY_KEYS} is enabled.
  *
  * @param <V> map value type
  */
@@ -18,9 +21,17 @@ public class MinimalMapSerializer<V> extends JsonSerializer<MinimalMap<V>> {
   @Override
   public void serialize(MinimalMap<V> attributes, JsonGenerator jsonGenerator, SerializerProvider serializerProvider)
     throws IOException {
+    Iterable<Map.Entry<String, V>> entries = attributes.entrySet();
+    if (serializerProvider.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)) {
+      SortedMap<String, V> sorted = new TreeMap<>();
+      for (Map.Entry<String, V> entry : entries) {
+        sorted.put(entry.getKey(), entry.getValue());
+      }
+      entries = sorted.entrySet();
+    }
     jsonGenerator.writeStartObject();
-    for (Map.Entry<String, V> stringObjectEntry : attributes.entrySet()) {
-      jsonGenerator.writeObjectField(stringObjectEntry.getKey(), stringObjectEntry.getValue());
+    for (Map.Entry<String, V> stringObjectEntry : entries) {
+      serializerProvider.defaultSerializeField(stringObjectEntry.getKey(), stringObjectEntry.getValue(), jsonGenerator);
     }
     jsonGenerator.writeEndObject();
   }
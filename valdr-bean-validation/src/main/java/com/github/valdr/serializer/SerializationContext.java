@@ -0,0 +1,160 @@
+package com.github.valdr.serializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.github.valdr.MinimalMap;
+import com.github.valdr.Options;
+import com.github.valdr.OutputFormat;
+import com.github.valdr.OutputStyle;
+
+/**
+ * Jackson configuration shared by everything which reads or writes valdr JSON. Building an {@link ObjectMapper} is
+ * expensive and each mapper warms up its own serializer caches, therefore all parsers (and the configuration readers)
+ * use the one mapper held by this class; it is created upon first use and safe to use from any thread once
+ * configured. The contexts differ in whether the output is indented and whether the keys of all objects are sorted
+ * (see {@link Options#getOutputStyle()} and {@link Options#getSortKeys()}).
+ */
+public final class SerializationContext {
+  // writes values into generators owned by somebody else, hence must not carry a pretty printer of its own
+  private final ObjectWriter valueWriter;
+  private final ObjectWriter writer;
+  private final boolean prettyPrint;
+  private final boolean sortKeys;
+
+  private SerializationContext(final boolean prettyPrint, final boolean sortKeys) {
+    this.prettyPrint = prettyPrint;
+    this.sortKeys = sortKeys;
+    ObjectWriter defaultWriter = getObjectMapper().writer();
+    this.valueWriter = sortKeys ? defaultWriter.with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS) : defaultWriter
+      .without(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    this.writer = prettyPrint ? valueWriter.withDefaultPrettyPrinter() : valueWriter;
+  }
+
+  /**
+   * @return context which indents the output and doesn't sort keys
+   */
+  public static SerializationContext pretty() {
+    return Holder.PRETTY;
+  }
+
+  /**
+   * @return context which writes the output without any whitespace and doesn't sort keys
+   */
+  public static SerializationContext compact() {
+    return Holder.COMPACT;
+  }
+
+  /**
+   * @param options configuration defining output style and key order
+   * @return context matching the configuration
+   */
+  public static SerializationContext forOptions(final Options options) {
+    boolean sortKeys = Boolean.TRUE.equals(options.getSortKeys());
+    if (options.getOutputStyle() == OutputStyle.COMPACT) {
+      return sortKeys ? Holder.COMPACT_SORTED : Holder.COMPACT;
+    }
+    return sortKeys ? Holder.PRETTY_SORTED : Holder.PRETTY;
+  }
+
+  /**
+   * @return the shared mapper which knows how to serialize {@link MinimalMap}s, it must not be reconfigured
+   */
+  public static ObjectMapper getObjectMapper() {
+    return Holder.OBJECT_MAPPER;
+  }
+
+  /**
+   * @return whether the output is indented
+   */
+  public boolean isPrettyPrint() {
+    return prettyPrint;
+  }
+
+  /**
+   * @return whether the keys of all objects are sorted
+   */
+  public boolean isSortKeys() {
+    return sortKeys;
+  }
+
+  /**
+   * @param value value to serialize
+   * @return JSON string
+   * @throws JsonProcessingException if serialization fails
+   */
+  public String toJson(final Object value) throws JsonProcessingException {
+    return writer.writeValueAsString(value);
+  }
+
+  /**
+   * Creates a UTF-8 JSON generator which applies the style of this context. Closing the generator doesn't close the
+   * stream.
+   *
+   * @param outputStream stream the generator writes to
+   * @return generator
+   * @throws IOException if the generator cannot be created
+   */
+  public JsonGenerator createGenerator(final OutputStream outputStream) throws IOException {
+    return createGenerator(outputStream, OutputFormat.JSON);
+  }
+
+  /**
+   * Creates a generator for the passed format. JSON is written UTF-8 encoded in the style of this context, the binary
+   * formats have no style. Closing the generator doesn't close the stream.
+   *
+   * @param outputStream stream the generator writes to
+   * @param format       format to write
+   * @return generator
+   * @throws IOException if the generator cannot be created
+   */
+  public JsonGenerator createGenerator(final OutputStream outputStream, final OutputFormat format) throws
+    IOException {
+    JsonGenerator generator = format.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    if (prettyPrint && format == OutputFormat.JSON) {
+      generator.useDefaultPrettyPrinter();
+    }
+    return generator;
+  }
+
+  /**
+   * Writes a value to a generator without flushing it. The indentation of the generator is kept, keys are sorted if
+   * this context sorts keys.
+   *
+   * @param generator generator to write to
+   * @param value     value to serialize
+   * @throws IOException if serialization fails
+   */
+  public void writeValue(final JsonGenerator generator, final Object value) throws IOException {
+    valueWriter.writeValue(generator, value);
+  }
+
+  private static ObjectMapper createObjectMapper() {
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    SimpleModule module = new SimpleModule();
+    module.addSerializer(MinimalMap.class, new MinimalMapSerializer());
+    objectMapper.registerModule(module);
+    // values are written one class at a time, flushing is up to the owner of the generator
+    objectMapper.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    return objectMapper;
+  }
+
+  /**
+   * Lazily initialized singletons (initialization-on-demand holder).
+   */
+  private static final class Holder {
+    private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+    private static final SerializationContext PRETTY = new SerializationContext(true, false);
+    private static final SerializationContext PRETTY_SORTED = new SerializationContext(true, true);
+    private static final SerializationContext COMPACT = new SerializationContext(false, false);
+    private static final SerializationContext COMPACT_SORTED = new SerializationContext(false, true);
+  }
+}
@@ -3,8 +3,11 @@ package com.github.valdr;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
 import org.junit.Test;
+import com.github.valdr.decorator.DecoratorFactories;
 import com.github.valdr.model.a.TestModelWithASingleAnnotatedMember;
 import com.google.common.collect.Lists;
 
@@ -24,7 +27,8 @@ public class AnnotatedClassTest {
     // given
     AnnotatedClass annotatedClass = new AnnotatedClass(TestModelWithASingleAnnotatedMember.class, Lists.newArrayList(
       TestModelWithASingleAnnotatedMember.class.getName()
-        + "#notNullString"), BuiltInConstraint.getAllBeanValidationAnnotations());
+        + "#notNullString"), new RelevantAnnotations(Collections.<Class<? extends Annotation>>emptyList(),
+        new DecoratorFactories(getClass().getClassLoader())));
     // when
     ClassConstraints classConstraints = annotatedClass.extractValidationRules();
     // then
@@ -0,0 +1,53 @@
+package com.github.valdr;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import java.util.Map;
+import javax.validation.constraints.Size;
+import org.junit.Test;
+import com.google.common.collect.Maps;
+
+/**
+ * Tests AnnotationAttributeReader.
+ */
+public class AnnotationAttributeReaderTest {
+  @Size(min = 2, max = 10, message = "custom")
+  private String sized;
+
+  /**
+   * See method name.
+   *
+   * @throws NoSuchFieldException never
+   */
+  @Test
+  public void shouldReadAttributesWithoutGroupsAndPayload() throws NoSuchFieldException {
+    // given
+    Size size = getClass().getDeclaredField("sized").getAnnotation(Size.class);
+    Map<String, Object> attributes = Maps.newHashMap();
+
+    // when
+    AnnotationAttributeReader.forType(Size.class).readInto(size, attributes);
+
+    // then
+    assertThat(attributes.size(), is(3));
+    assertThat(attributes, hasEntry("min", (Object) 2));
+    assertThat(attributes, hasEntry("max", (Object) 10));
+    assertThat(attributes, hasEntry("message", (Object) "custom"));
+    assertThat(attributes, not(hasKey("groups")));
+    assertThat(attributes, not(hasKey("payload")));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldCacheReaderPerAnnotationType() {
+    // then
+    assertThat(AnnotationAttributeReader.forType(Size.class), is(sameInstance(AnnotationAttributeReader.forType(
+      Size.class))));
+  }
+}
@@ -0,0 +1,196 @@
+package com.github.valdr;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import javax.persistence.Entity;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.NotNull;
+import org.junit.Test;
+import org.reflections.util.FilterBuilder;
+import com.github.valdr.discovery.AnnotatedTypeDiscovery;
+import com.github.valdr.discovery.ConstrainedTypeDiscovery;
+import com.github.valdr.discovery.ModelClassDiscovery;
+import com.github.valdr.discovery.SubTypeDiscovery;
+import com.github.valdr.model.d.SubClassWithNoValidatedMembers;
+import com.github.valdr.model.d.SuperClassWithValidatedMember;
+import com.github.valdr.model.i.TestEntityWithDigits;
+import com.github.valdr.model.i.TestEntityWithPattern;
+import com.github.valdr.model.i.TestEntityWithSize;
+import com.google.common.base.Predicate;
+import com.google.common.io.Resources;
+
+/**
+ * Tests ClassFileScanner.
+ */
+public class ClassFileScannerTest {
+  private static final ModelClassDiscovery ENTITIES = new AnnotatedTypeDiscovery(Collections.singleton(Entity.class
+    .getName()));
+
+  private final URL testClasses = ClassFileScannerTest.class.getProtectionDomain().getCodeSource().getLocation();
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldFindEntitiesWithoutLoadingThem() {
+    // given
+    ClassFileScanner scanner = new ClassFileScanner(packageFilter(TestEntityWithSize.class), ENTITIES, null, null);
+    // when
+    Set<String> classNames = scanner.scan(Collections.singleton(testClasses));
+    // then
+    assertThat(classNames, contains(TestEntityWithDigits.class.getName(), TestEntityWithPattern.class.getName(),
+      TestEntityWithSize.class.getName()));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSkipEntitiesWithoutRelevantAnnotations() {
+    // given
+    ClassFileScanner scanner = new ClassFileScanner(packageFilter(TestEntityWithSize.class), ENTITIES, Collections
+      .singleton(Digits.class.getName()), null);
+    // when
+    Set<String> classNames = scanner.scan(Collections.singleton(testClasses));
+    // then
+    assertThat(classNames, contains(TestEntityWithDigits.class.getName()));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldIgnoreClassesWhichAreNoEntities() {
+    // given
+    ClassFileScanner scanner = new ClassFileScanner(packageFilter(SubClassWithNoValidatedMembers.class), ENTITIES,
+      null, null);
+    // then
+    assertThat(scanner.scan(Collections.singleton(testClasses)), is(empty()));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldProduceSameOutputAsReflections() throws Exception {
+    // given
+    Options options = new Options();
+    options.setModelPackages(Collections.singletonList(TestEntityWithSize.class.getPackage().getName()));
+    String json = new ConstraintParser(options).parse();
+    options.setScanClassFiles(true);
+    // when
+    String classFileJson = new ConstraintParser(options).parse();
+    options.setScannerParallelism(4);
+    String parallelJson = new ConstraintParser(options).parse();
+    // then
+    assertThat(classFileJson, is(json));
+    assertThat(parallelJson, is(json));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldReadJarsAndDirectoriesConcurrently() throws Exception {
+    // given
+    File jar = File.createTempFile("valdr-model", ".jar");
+    jar.deleteOnExit();
+    String classFileName = TestEntityWithSize.class.getName().replace('.', '/') + ".class";
+    try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(jar))) {
+      outputStream.putNextEntry(new JarEntry(classFileName));
+      Resources.copy(Resources.getResource(classFileName), outputStream);
+      outputStream.closeEntry();
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ClassFileScanner scanner = new ClassFileScanner(packageFilter(TestEntityWithSize.class), ENTITIES, null,
+        executor);
+      // when
+      Set<String> jarClassNames = scanner.scan(Collections.singleton(jar.toURI().toURL()));
+      Set<String> classNames = scanner.scan(Arrays.asList(jar.toURI().toURL(), testClasses));
+      // then
+      assertThat(jarClassNames, contains(TestEntityWithSize.class.getName()));
+      assertThat(classNames, contains(TestEntityWithDigits.class.getName(), TestEntityWithPattern.class.getName(),
+        TestEntityWithSize.class.getName()));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldSkipInvalidClassFiles() throws Exception {
+    // given
+    File jar = File.createTempFile("valdr-model", ".jar");
+    jar.deleteOnExit();
+    String classFileName = TestEntityWithSize.class.getName().replace('.', '/') + ".class";
+    try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(jar))) {
+      outputStream.putNextEntry(new JarEntry(TestEntityWithSize.class.getPackage().getName().replace('.', '/')
+        + "/Corrupt.class"));
+      outputStream.write("no class file".getBytes(StandardCharsets.US_ASCII));
+      outputStream.closeEntry();
+      outputStream.putNextEntry(new JarEntry(classFileName));
+      Resources.copy(Resources.getResource(classFileName), outputStream);
+      outputStream.closeEntry();
+    }
+    ClassFileScanner scanner = new ClassFileScanner(packageFilter(TestEntityWithSize.class), ENTITIES, null, null);
+    // when
+    Set<String> classNames = scanner.scan(Collections.singleton(jar.toURI().toURL()));
+    // then
+    assertThat(classNames, contains(TestEntityWithSize.class.getName()));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldDiscoverClassesWithConstrainedFields() {
+    // given
+    ClassFileScanner scanner = new ClassFileScanner(packageFilter(SubClassWithNoValidatedMembers.class), new
+      ConstrainedTypeDiscovery(Collections.singleton(NotNull.class.getName())), null, null);
+    // when
+    Set<String> classNames = scanner.scan(Collections.singleton(testClasses));
+    // then
+    assertThat(classNames, contains(SubClassWithNoValidatedMembers.class.getName(),
+      SuperClassWithValidatedMember.class.getName()));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldDiscoverSubTypes() {
+    // given
+    ClassFileScanner scanner = new ClassFileScanner(packageFilter(SubClassWithNoValidatedMembers.class), new
+      SubTypeDiscovery(Collections.singleton(SuperClassWithValidatedMember.class.getName())), null, null);
+    // when
+    Set<String> classNames = scanner.scan(Collections.singleton(testClasses));
+    // then
+    assertThat(classNames, contains(SubClassWithNoValidatedMembers.class.getName()));
+  }
+
+  private Predicate<String> packageFilter(final Class<?> clazz) {
+    return new FilterBuilder().include(FilterBuilder.prefix(clazz.getPackage().getName()));
+  }
+}
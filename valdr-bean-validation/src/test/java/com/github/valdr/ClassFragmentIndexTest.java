@@ -0,0 +1,99 @@
+package com.github.valdr;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+
+/**
+ * Tests ClassFragmentIndex.
+ */
+public class ClassFragmentIndexTest {
+  private static final String PRETTY = "{\n"
+    + "  \"Address\" : {\n    \"street\" : {\n      \"required\" : {\n        \"message\" : \"a\"\n      }\n    }\n  },\n"
+    + "  \"Person\" : {\n    \"name\" : {\n      \"required\" : {\n        \"message\" : \"\\\"p\\\"\"\n      }\n    }\n  },\n"
+    + "  \"Zip\" : { }\n"
+    + "}";
+
+  private final ClassFragmentIndex index = new ClassFragmentIndex(PRETTY.getBytes(Charsets.UTF_8));
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldReproduceDocumentIfAllClassesAreSelected() {
+    // when
+    byte[] json = index.select(index.getNames());
+    // then
+    assertThat(new String(json, Charsets.UTF_8), is(PRETTY));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldConcatenateSelectedFragmentsInDocumentOrder() throws IOException {
+    // when
+    byte[] json = index.select(Arrays.asList("Zip", "Person", "Unknown"));
+    // then
+    ObjectMapper objectMapper = new ObjectMapper();
+    assertThat(objectMapper.readTree(json), is(objectMapper.readTree("{\"Person\":{\"name\":{\"required\":"
+      + "{\"message\":\"\\\"p\\\"\"}}},\"Zip\":{}}")));
+    assertThat(new String(json, Charsets.UTF_8), is("{\n  \"Person\" : {\n    \"name\" : {\n      \"required\" : {\n"
+      + "        \"message\" : \"\\\"p\\\"\"\n      }\n    }\n  },\n  \"Zip\" : { }\n}"));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldReturnEmptyDocumentIfNothingIsSelected() {
+    // then
+    assertThat(new String(index.select(Collections.<String>emptySet()), Charsets.UTF_8), is("{}"));
+    assertThat(new ClassFragmentIndex("{ }".getBytes(Charsets.UTF_8)).getNames(), is(empty()));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldHandleCompactSingleClassDocument() {
+    // given
+    ClassFragmentIndex compactIndex = new ClassFragmentIndex("{\"Person\":{}}".getBytes(Charsets.UTF_8));
+    // then
+    assertThat(new String(compactIndex.select(Collections.singleton("Person")), Charsets.UTF_8), is(
+      "{\"Person\":{}}"));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSelectClassesByPackage() {
+    // given
+    Map<String, Set<String>> packageNames = ImmutableMap.<String, Set<String>>of("Address", Collections.singleton(
+      "com.company.model.address"), "Person", Collections.singleton("com.company.model"), "Zip", Sets.newHashSet(
+      "com.company.other", "com.company.model.zip"));
+    ClassFragmentIndex fullNameIndex = new ClassFragmentIndex(("{\"com.company.model.Person\":{},"
+      + "\"com.company.other.Zip\":{}}").getBytes(Charsets.UTF_8));
+    // then
+    assertThat(index.getNamesInPackage("com.company.model", packageNames), contains("Address", "Person", "Zip"));
+    assertThat(index.getNamesInPackage("com.company.other", packageNames), contains("Zip"));
+    assertThat(index.getNamesInPackage("com.company.mod", packageNames), is(empty()));
+    assertThat(fullNameIndex.getNamesInPackage("com.company.other", null), contains("com.company.other.Zip"));
+    assertThat(fullNameIndex.hasQualifiedNamesOnly(), is(true));
+    assertThat(index.hasQualifiedNamesOnly(), is(false));
+  }
+}
@@ -0,0 +1,56 @@
+package com.github.valdr;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import java.util.Collections;
+import org.junit.Test;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests ClassNameFilter.
+ */
+public class ClassNameFilterTest {
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSelectClassesOfModelPackages() {
+    // given
+    ClassNameFilter filter = new ClassNameFilter(Lists.newArrayList("com.company.model", "com.company.dto"),
+      Collections.<String>emptyList());
+    // then
+    assertThat(filter.apply("com.company.model.Person.class"), is(true));
+    assertThat(filter.apply("com.company.dto.sub.PersonDto.class"), is(true));
+    assertThat(filter.apply("com.company.service.PersonService.class"), is(false));
+    assertThat(filter.apply("com.company.Model.class"), is(false));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSelectAllClassesWithoutModelPackages() {
+    // given
+    ClassNameFilter filter = new ClassNameFilter(Lists.newArrayList(""), Lists.newArrayList(
+      "com.company.model.Person"));
+    // then
+    assertThat(filter.apply("com.company.service.PersonService.class"), is(true));
+    assertThat(filter.apply("com.company.model.Person.class"), is(false));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSkipExactlyTheExcludedClasses() {
+    // given
+    ClassNameFilter filter = new ClassNameFilter(Lists.newArrayList("com.company"), Lists.newArrayList(
+      "com.company.model.Person", "com.company.model.Person$Address"));
+    // then
+    assertThat(filter.apply("com.company.model.Person.class"), is(false));
+    assertThat(filter.apply("com.company.model.Person$Address.class"), is(false));
+    assertThat(filter.apply("com.company.model.PersonDetails.class"), is(true));
+    assertThat(filter.apply("com.company.modelXPerson.class"), is(true));
+  }
+}
@@ -1,18 +1,26 @@
 package com.github.valdr;
 
 import com.github.valdr.model.a.TestModelWithASingleAnnotatedMember;
+import com.github.valdr.model.i.TestEntityWithSize;
+import com.github.valdr.util.GeneratedModel;
+import com.github.valdr.util.ModelGenerator;
+import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
+import com.google.common.io.Files;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.core.Is.is;
 
 /**
@@ -61,6 +69,50 @@ public class ClasspathScannerTest {
     assertThat(classesToParse.size(), is(9));
   }
 
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldFindAllGeneratedEntities() throws IOException {
+    // given
+    try (GeneratedModel model = new ModelGenerator("com.github.valdr.generated.scanner").withClassCount(2500)
+      .withSuperclassDepth(3).generate().activate()) {
+      ClasspathScanner classpathScanner = scannerFor(Lists.newArrayList(model.getPackageName()),
+        emptyStringList());
+      // when
+      Set<Class<?>> classesToParse = classpathScanner.findClassesToParse();
+      // then
+      assertThat(classesToParse.size(), is(2500));
+    }
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldOnlyScanUrlsWithoutConstraintIndex() throws IOException {
+    // given
+    try (GeneratedModel model = new ModelGenerator("com.github.valdr.generated.indexed").withClassCount(10).generate()
+      .activate()) {
+      File index = new File(model.getDirectory(), ConstraintIndex.RESOURCE_NAME);
+      Files.createParentDirs(index);
+      Files.write(model.getEntityClassNames().get(0) + "\n", index, Charsets.UTF_8);
+      Options options = new Options();
+      options.setModelPackages(Lists.newArrayList(model.getPackageName(), TestEntityWithSize.class.getPackage()
+        .getName()));
+      options.setUseConstraintIndex(true);
+      // when
+      Set<Class<?>> classesToParse = new ClasspathScanner(options).findClassesToParse();
+      // then the generated model is taken from its index, the test classes without index are scanned
+      assertThat(classesToParse.size(), is(4));
+      assertThat(classesToParse, hasItem(TestEntityWithSize.class));
+    }
+  }
+
   private Matcher<? super Set<Class<?>>> notContains(final Class<?> testModelClass) {
     return new BaseMatcher() {
       @Override
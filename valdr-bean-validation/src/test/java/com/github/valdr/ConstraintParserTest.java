@@ -2,13 +2,18 @@ package com.github.valdr;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -21,7 +26,12 @@ import com.github.valdr.model.e.TestModelClassWithLotsOfIrrelevantAnnotations;
 import com.github.valdr.model.f.TestModelWithHibernateEmailAnnotation;
 import com.github.valdr.model.g.TestModelWithHibernateUrlAnnotation;
 import com.github.valdr.model.h.TestModelWithPatterns;
+import com.github.valdr.model.i.TestEntityWithDigits;
+import com.github.valdr.model.i.TestEntityWithPattern;
+import com.github.valdr.model.i.TestEntityWithSize;
 import com.github.valdr.model.validation.CustomValidation;
+import com.github.valdr.util.GeneratedModel;
+import com.github.valdr.util.ModelGenerator;
 import com.google.common.collect.Lists;
 
 public class ConstraintParserTest {
@@ -272,6 +282,177 @@ public class ConstraintParserTest {
     assertThat(json, containsString("/\\\\\\\\abc\\\\./")); // JSON needs to escape \ -> double escape here
   }
 
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldSortClassesByName() throws Exception {
+    // given
+    parserConfiguredFor(Lists.newArrayList(TestEntityWithSize.class.getPackage().getName()), emptyStringList());
+    // when
+    String json = parser.parse();
+    // then
+    assertThat(json.indexOf(TestEntityWithDigits.class.getSimpleName()), is(lessThan(json.indexOf(
+      TestEntityWithPattern.class.getSimpleName()))));
+    assertThat(json.indexOf(TestEntityWithPattern.class.getSimpleName()), is(lessThan(json.indexOf(
+      TestEntityWithSize.class.getSimpleName()))));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldProduceSameOutputWhenParsingInParallel() throws Exception {
+    // given
+    parserConfiguredFor(Lists.newArrayList(TestEntityWithSize.class.getPackage().getName()), emptyStringList());
+    String sequentialJson = parser.parse();
+    Options options = new Options();
+    options.setModelPackages(Lists.newArrayList(TestEntityWithSize.class.getPackage().getName()));
+    options.setParserParallelism(4);
+    // when
+    String parallelJson = new ConstraintParser(options).parse();
+    // then
+    assertThat(parallelJson, is(sequentialJson));
+    assertThat(parallelJson, containsString(TestEntityWithSize.class.getSimpleName()));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldParseInParallelRepeatedlyAndAfterShutdown() throws Exception {
+    // given
+    Options options = new Options();
+    options.setModelPackages(Lists.newArrayList(TestEntityWithSize.class.getPackage().getName()));
+    options.setParserParallelism(4);
+    ConstraintParser parallelParser = new ConstraintParser(options);
+    String firstJson = parallelParser.parse();
+    // when
+    String secondJson = parallelParser.parse();
+    parallelParser.shutdown();
+    String afterShutdownJson = parallelParser.parse();
+    // then
+    assertThat(secondJson, is(firstJson));
+    assertThat(afterShutdownJson, is(firstJson));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldParseLargeGeneratedModel() throws Exception {
+    // given
+    try (GeneratedModel model = new ModelGenerator("com.github.valdr.generated.parser").withClassCount(1000)
+      .withFieldsPerClass(20).generate().activate()) {
+      parserConfiguredFor(Lists.newArrayList(model.getPackageName()), ModelGenerator.getCustomAnnotationClassNames());
+      Options options = new Options();
+      options.setModelPackages(Lists.newArrayList(model.getPackageName()));
+      options.setCustomAnnotationClasses(ModelGenerator.getCustomAnnotationClassNames());
+      options.setParserParallelism(4);
+      // when
+      String sequentialJson = parser.parse();
+      String parallelJson = new ConstraintParser(options).parse();
+      // then
+      JsonNode rules = new ObjectMapper().readTree(sequentialJson);
+      assertThat(rules.size(), is(1000));
+      assertThat(rules.get("Entity0").has("superClass0Field0"), is(rules.get("Entity1").has("superClass0Field0")));
+      assertThat(parallelJson, is(sequentialJson));
+    }
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldStreamSameDocumentToGenerator() throws Exception {
+    // given
+    parserConfiguredFor(Lists.newArrayList(TestEntityWithSize.class.getPackage().getName()), emptyStringList());
+    StringWriter writer = new StringWriter();
+    // when
+    try (JsonGenerator generator = new JsonFactory().createGenerator(writer)) {
+      generator.useDefaultPrettyPrinter();
+      parser.parse(generator);
+    }
+    // then
+    assertThat(writer.toString(), is(parser.parse()));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldWriteCompactOutputWithSortedKeys() throws Exception {
+    // given
+    parserConfiguredFor(Lists.newArrayList(TestEntityWithSize.class.getPackage().getName()), emptyStringList());
+    Options options = new Options();
+    options.setModelPackages(Lists.newArrayList(TestEntityWithSize.class.getPackage().getName()));
+    options.setOutputStyle(OutputStyle.COMPACT);
+    options.setSortKeys(true);
+    // when
+    String compactJson = new ConstraintParser(options).parse();
+    // then
+    ObjectMapper objectMapper = new ObjectMapper();
+    assertThat(objectMapper.readTree(compactJson), is(objectMapper.readTree(parser.parse())));
+    assertThat(compactJson, not(containsString(LS)));
+    assertThat(compactJson, not(containsString(" : ")));
+    String size = compactJson.substring(compactJson.indexOf("\"size\""));
+    assertThat(size.indexOf("\"max\""), is(lessThan(size.indexOf("\"message\""))));
+    assertThat(size.indexOf("\"message\""), is(lessThan(size.indexOf("\"min\""))));
+    assertThat(new ConstraintParser(options).parse(), is(compactJson));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldProduceSameOutputWhenParsingIncrementally() throws Exception {
+    // given
+    parserConfiguredFor(Lists.newArrayList(TestEntityWithSize.class.getPackage().getName()), emptyStringList());
+    Options options = new Options();
+    options.setModelPackages(Lists.newArrayList(TestEntityWithSize.class.getPackage().getName()));
+    options.setIncrementalParsing(true);
+    ConstraintParser incrementalParser = new ConstraintParser(options);
+    // when
+    String firstJson = incrementalParser.parse();
+    String secondJson = incrementalParser.parse();
+    // then
+    assertThat(firstJson, is(parser.parse()));
+    assertThat(secondJson, is(firstJson));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldParseConstrainedClassesWhichAreNoEntities() throws Exception {
+    // given
+    Options options = new Options();
+    options.setModelPackages(Lists.newArrayList(SubClassWithNoValidatedMembers.class.getPackage().getName()));
+    options.setDiscoverConstrainedClasses(true);
+    // when
+    JsonNode jsonNode = new ObjectMapper().readTree(new ConstraintParser(options).parse());
+    // then
+    assertThat(jsonNode.get(SubClassWithNoValidatedMembers.class.getSimpleName()).get("notNullString").has(
+      "required"), is(true));
+    assertThat(jsonNode.has(SuperClassWithValidatedMember.class.getSimpleName()), is(true));
+  }
+
   private void parserConfiguredFor(final List<String> modelPackages, final List<String> customAnnotationClasses) {
     Options options = new Options();
     options.setModelPackages(modelPackages);
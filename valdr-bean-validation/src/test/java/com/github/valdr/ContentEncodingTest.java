@@ -0,0 +1,87 @@
+package com.github.valdr;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import com.google.common.base.Charsets;
+
+/**
+ * Tests ContentEncoding.
+ */
+public class ContentEncodingTest {
+  private static final byte[] DATA = "{ \"foo\" : \"bar\" }".getBytes(Charsets.UTF_8);
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldUseIdentityWithoutAcceptEncoding() {
+    assertThat(ContentEncoding.negotiate(null), is(ContentEncoding.IDENTITY));
+    assertThat(ContentEncoding.negotiate(""), is(ContentEncoding.IDENTITY));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldPreferGzipForEqualQuality() {
+    assertThat(ContentEncoding.negotiate("deflate, gzip"), is(ContentEncoding.GZIP));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldHonorQualityValues() {
+    assertThat(ContentEncoding.negotiate("gzip;q=0.5, deflate;q=0.8"), is(ContentEncoding.DEFLATE));
+    assertThat(ContentEncoding.negotiate("gzip;q=0, deflate;q=0"), is(ContentEncoding.IDENTITY));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldHonorWildcard() {
+    assertThat(ContentEncoding.negotiate("*"), is(ContentEncoding.GZIP));
+    assertThat(ContentEncoding.negotiate("gzip;q=0, *"), is(ContentEncoding.DEFLATE));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldIgnoreUnsupportedCodings() {
+    assertThat(ContentEncoding.negotiate("br, compress"), is(ContentEncoding.IDENTITY));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldProduceDecodableGzip() throws IOException {
+    // when
+    byte[] encoded = ContentEncoding.GZIP.encode(DATA);
+    // then
+    assertThat(IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(encoded))), is(DATA));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldProduceDecodableDeflate() throws IOException {
+    // when
+    byte[] encoded = ContentEncoding.DEFLATE.encode(DATA);
+    // then
+    assertThat(IOUtils.toByteArray(new InflaterInputStream(new ByteArrayInputStream(encoded))), is(DATA));
+  }
+}
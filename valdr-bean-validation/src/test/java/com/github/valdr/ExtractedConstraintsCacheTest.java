@@ -0,0 +1,85 @@
+package com.github.valdr;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import java.util.Collections;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.Size;
+import org.junit.Test;
+import com.github.valdr.model.i.TestEntityWithDigits;
+import com.github.valdr.model.i.TestEntityWithSize;
+
+/**
+ * Tests ExtractedConstraintsCache.
+ */
+public class ExtractedConstraintsCacheTest {
+  private final ExtractedConstraintsCache cache = new ExtractedConstraintsCache(Collections.<Class<?>>singleton(
+    Size.class));
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldHashBytecode() {
+    // when
+    String hash = cache.hash(TestEntityWithSize.class);
+    // then
+    assertThat(hash, is(notNullValue()));
+    assertThat(cache.hash(TestEntityWithSize.class), is(hash));
+    assertThat(cache.hash(TestEntityWithDigits.class), is(not(hash)));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldHashRelevantAnnotations() {
+    // given
+    ExtractedConstraintsCache otherAnnotations = new ExtractedConstraintsCache(Collections.<Class<?>>singleton(
+      Digits.class));
+    // then
+    assertThat(otherAnnotations.hash(TestEntityWithSize.class), is(not(cache.hash(TestEntityWithSize.class))));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldOnlyReuseConstraintsOfUnchangedClasses() {
+    // given
+    ClassConstraints classConstraints = new ClassConstraints();
+    String hash = cache.hash(TestEntityWithSize.class);
+    cache.put(TestEntityWithSize.class.getName(), hash, classConstraints);
+    // then
+    assertThat(cache.get(TestEntityWithSize.class.getName(), hash), is(sameInstance(classConstraints)));
+    assertThat(cache.get(TestEntityWithSize.class.getName(), "changed"), is(nullValue()));
+    assertThat(cache.get(TestEntityWithSize.class.getName(), null), is(nullValue()));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldDropClassesNotUsedInRun() {
+    // given
+    cache.startRun();
+    cache.use(TestEntityWithSize.class.getName());
+    String sizeHash = cache.hash(TestEntityWithSize.class);
+    cache.put(TestEntityWithSize.class.getName(), sizeHash, new ClassConstraints());
+    cache.use(TestEntityWithDigits.class.getName());
+    String digitsHash = cache.hash(TestEntityWithDigits.class);
+    cache.put(TestEntityWithDigits.class.getName(), digitsHash, new ClassConstraints());
+    cache.finishRun();
+    // when
+    cache.startRun();
+    cache.use(TestEntityWithSize.class.getName());
+    cache.finishRun();
+    // then
+    assertThat(cache.get(TestEntityWithSize.class.getName(), sizeHash), is(notNullValue()));
+    assertThat(cache.get(TestEntityWithDigits.class.getName(), digitsHash), is(nullValue()));
+  }
+}
@@ -1,5 +1,6 @@
 package com.github.valdr;
 
+import com.google.common.collect.Lists;
 import org.junit.Test;
 
 import static org.hamcrest.Matchers.is;
@@ -26,4 +27,81 @@ public class OptionsTest {
       assertThat(e.getMessage(), is("Model package names must not be empty."));
     }
   }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldComplainAboutNonPositiveRefreshInterval() {
+    // given
+    Options options = new Options();
+    options.setModelPackages(Lists.newArrayList("com.github.valdr.model"));
+    options.setRefreshPolicy(RefreshPolicy.INTERVAL);
+    options.setRefreshInterval(0L);
+    // when
+    try {
+      options.validate();
+      fail("Non-positive refresh interval not allowed");
+    } catch (Options.InvalidConfigurationException e) {
+      // then
+      assertThat(e.getMessage(), is("Refresh interval must be positive for refresh policy INTERVAL."));
+    }
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldComplainAboutMissingOutputStyle() {
+    // given
+    Options options = new Options();
+    options.setModelPackages(Lists.newArrayList("com.github.valdr.model"));
+    options.setOutputStyle(null);
+    // when
+    try {
+      options.validate();
+      fail("Missing output style not allowed");
+    } catch (Options.InvalidConfigurationException e) {
+      // then
+      assertThat(e.getMessage(), is("Output style must not be empty."));
+    }
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldComplainAboutNegativeRetryAfter() {
+    // given
+    Options options = new Options();
+    options.setModelPackages(Lists.newArrayList("com.github.valdr.model"));
+    options.setRetryAfter(-1L);
+    // when
+    try {
+      options.validate();
+      fail("Negative retry after not allowed");
+    } catch (Options.InvalidConfigurationException e) {
+      // then
+      assertThat(e.getMessage(), is("Retry after must not be negative."));
+    }
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldComplainAboutNegativeScannerParallelism() {
+    // given
+    Options options = new Options();
+    options.setModelPackages(Lists.newArrayList("com.github.valdr.model"));
+    options.setScannerParallelism(-1);
+    // when
+    try {
+      options.validate();
+      fail("Negative scanner parallelism not allowed");
+    } catch (Options.InvalidConfigurationException e) {
+      // then
+      assertThat(e.getMessage(), is("Scanner parallelism must not be negative."));
+    }
+  }
 }
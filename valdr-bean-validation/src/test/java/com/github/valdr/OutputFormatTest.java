@@ -0,0 +1,88 @@
+package com.github.valdr;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import java.io.IOException;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+
+/**
+ * Tests OutputFormat.
+ */
+public class OutputFormatTest {
+  private static final byte[] DATA = ("{ \"Person\" : { \"name\" : { \"size\" : { \"min\" : 2, \"max\" : 10 } }, "
+    + "\"email\" : { \"size\" : { \"min\" : 2, \"max\" : 10 } } } }").getBytes(Charsets.UTF_8);
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldUseJsonWithoutAccept() {
+    assertThat(OutputFormat.negotiate(null), is(OutputFormat.JSON));
+    assertThat(OutputFormat.negotiate(""), is(OutputFormat.JSON));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldPreferJsonForWildcards() {
+    assertThat(OutputFormat.negotiate("*/*"), is(OutputFormat.JSON));
+    assertThat(OutputFormat.negotiate("text/html, application/xhtml+xml, application/*;q=0.9"), is(OutputFormat.JSON));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSelectRequestedBinaryFormat() {
+    assertThat(OutputFormat.negotiate("application/x-jackson-smile"), is(OutputFormat.SMILE));
+    assertThat(OutputFormat.negotiate("application/cbor, application/json;q=0.5"), is(OutputFormat.CBOR));
+    assertThat(OutputFormat.negotiate("application/cbor;q=0.5, application/json"), is(OutputFormat.JSON));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldHonorMostSpecificRange() {
+    assertThat(OutputFormat.negotiate("application/json;q=0, */*"), is(OutputFormat.SMILE));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldFallBackToJsonForUnsupportedTypes() {
+    assertThat(OutputFormat.negotiate("application/xml"), is(OutputFormat.JSON));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldEncodeSameTree() throws IOException {
+    // given
+    JsonNode expected = new ObjectMapper().readTree(DATA);
+    for (OutputFormat format : OutputFormat.values()) {
+      // when
+      byte[] encoded = format.encode(DATA);
+      // then
+      assertThat(new ObjectMapper(format.getFactory()).readTree(encoded), is(expected));
+    }
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldEncodeSmallerThanJson() {
+    assertThat(OutputFormat.SMILE.encode(DATA).length, is(lessThan(DATA.length)));
+    assertThat(OutputFormat.CBOR.encode(DATA).length, is(lessThan(DATA.length)));
+  }
+}
@@ -0,0 +1,98 @@
+package com.github.valdr;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Map;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import org.junit.Test;
+import com.github.valdr.decorator.DecoratorFactories;
+import com.github.valdr.decorator.DecoratorFactoriesTest;
+import com.github.valdr.decorator.NullDecorator;
+import com.github.valdr.decorator.PatternDecorator;
+import com.github.valdr.model.validation.CustomValidation;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests RelevantAnnotations.
+ */
+public class RelevantAnnotationsTest {
+  private final RelevantAnnotations relevantAnnotations = new RelevantAnnotations(Lists.<Class<? extends
+    Annotation>>newArrayList(CustomValidation.class, DecoratorFactoriesTest.Decorated.class), new DecoratorFactories(
+    getClass().getClassLoader()));
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldContainBuiltInAndCustomAnnotations() {
+    // then
+    assertThat(relevantAnnotations.getAnnotationClasses(), hasItems(NotNull.class, Pattern.class,
+      CustomValidation.class));
+    assertThat(relevantAnnotations.get(Deprecated.class), is(nullValue()));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldAddBuiltInConstraintDecorated() {
+    // given
+    FieldConstraints fieldConstraints = new FieldConstraints();
+
+    // when
+    relevantAnnotations.get(Pattern.class).addTo(fieldConstraints, new ConstraintAttributes(Pattern.class.getName(),
+      Collections.<String, Object>singletonMap("regexp", "a"), true, false));
+
+    // then
+    assertThat(getConstraint(fieldConstraints, BuiltInConstraint.PATTERN.toString()), instanceOf(PatternDecorator.class));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldAddCustomConstraintByClassName() {
+    // given
+    FieldConstraints fieldConstraints = new FieldConstraints();
+
+    // when
+    relevantAnnotations.get(CustomValidation.class).addTo(fieldConstraints, new ConstraintAttributes(
+      CustomValidation.class.getName(), Collections.<String, Object>emptyMap(), true, false));
+
+    // then
+    assertThat(getConstraint(fieldConstraints, CustomValidation.class.getName()), is(notNullValue()));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldDecorateCustomConstraintWithRegisteredFactory() {
+    // given
+    FieldConstraints fieldConstraints = new FieldConstraints();
+    String name = DecoratorFactoriesTest.Decorated.class.getName();
+
+    // when
+    relevantAnnotations.get(DecoratorFactoriesTest.Decorated.class).addTo(fieldConstraints, new ConstraintAttributes(
+      name, Collections.<String, Object>emptyMap(), true, false));
+
+    // then
+    assertThat(getConstraint(fieldConstraints, name), instanceOf(NullDecorator.class));
+  }
+
+  private MinimalObjectMap getConstraint(final FieldConstraints fieldConstraints, final String name) {
+    for (Map.Entry<String, MinimalObjectMap> entry : fieldConstraints.entrySet()) {
+      if (entry.getKey().equals(name)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,242 @@
+package com.github.valdr;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import com.fasterxml.jackson.core.JsonParser;
+import com.github.valdr.decorator.DecoratorFactories;
+import com.github.valdr.model.i.TestEntityWithSize;
+import com.github.valdr.model.validation.CustomValidation;
+import com.github.valdr.serializer.SerializationContext;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+
+/**
+ * Tests ScanCache.
+ */
+public class ScanCacheTest {
+  private final List<URL> scannedUrls = Lists.newArrayList();
+  private final ScanCache.UrlScanner scanner = new ScanCache.UrlScanner() {
+    @Override
+    public Map<String, Boolean> scan(final URL url, final Set<String> modelTypeNames) {
+      scannedUrls.add(url);
+      return Collections.singletonMap(url.getPath().contains("first") ? "com.company.model.First" :
+        "com.company.model.Second", Boolean.TRUE);
+    }
+  };
+  private RelevantAnnotations relevantAnnotations;
+  private Options options;
+  private File root;
+  private File second;
+
+  /**
+   * Creates two classpath directories containing a model package each.
+   *
+   * @throws IOException never
+   */
+  @Before
+  public void setUp() throws IOException {
+    root = Files.createTempDir();
+    options = new Options();
+    options.setModelPackages(Lists.newArrayList("com.company.model"));
+    options.setScanCacheDirectory(new File(root, "cache").getPath());
+    relevantAnnotations = new RelevantAnnotations(Collections.singleton(CustomValidation.class),
+      new DecoratorFactories(getClass().getClassLoader()));
+    createClassFile(new File(root, "first"), "First");
+    second = createClassFile(new File(root, "second"), "Second");
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldBeDisabledWithoutDirectory() {
+    // given
+    options.setScanCacheDirectory("");
+    // then
+    assertThat(ScanCache.open(options, relevantAnnotations), is(nullValue()));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldOnlyRescanChangedUrls() throws IOException {
+    // given
+    List<URL> urls = Arrays.asList(urlOf("first"), urlOf("second"));
+    ScanCache scanCache = ScanCache.open(options, relevantAnnotations);
+    scanCache.findClassNames(urls, scanner);
+    store(scanCache);
+    scannedUrls.clear();
+    Files.write("changed class", second, Charsets.UTF_8);
+    // when
+    Set<String> classNames = ScanCache.open(options, relevantAnnotations).findClassNames(urls, scanner);
+    // then
+    assertThat(classNames, contains("com.company.model.First", "com.company.model.Second"));
+    assertThat(scannedUrls, contains(urlOf("second")));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldOnlyProvideRulesIfNoUrlChanged() throws IOException {
+    // given
+    List<URL> urls = Arrays.asList(urlOf("first"), urlOf("second"));
+    ScanCache scanCache = ScanCache.open(options, relevantAnnotations);
+    scanCache.findClassNames(urls, scanner);
+    store(scanCache);
+    scannedUrls.clear();
+    // when
+    ScanCache unchanged = ScanCache.open(options, relevantAnnotations);
+    unchanged.findClassNames(urls, scanner);
+    ScanCache changed = ScanCache.open(options, relevantAnnotations);
+    changed.findClassNames(Collections.singletonList(urlOf("first")), scanner);
+    // then
+    assertThat(scannedUrls.isEmpty(), is(true));
+    try (JsonParser parser = unchanged.openRules()) {
+      assertThat(parser, is(notNullValue()));
+    }
+    assertThat(changed.openRules(), is(nullValue()));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldProduceSameDocumentFromCache() throws Exception {
+    // given
+    options.setModelPackages(Lists.newArrayList(TestEntityWithSize.class.getPackage().getName()));
+    String parsed = new ConstraintParser(options).parse();
+    // when
+    String cached = new ConstraintParser(options).parse();
+    // then
+    assertThat(cached, is(parsed));
+    assertThat(new File(options.getScanCacheDirectory()).list().length, is(1));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldRescanUrlsWithSubClassesOfChangedModelTypes() throws IOException {
+    // given
+    final Set<String> modelAnnotated = Sets.newHashSet("com.company.model.Base");
+    ScanCache.UrlScanner hierarchyScanner = new ScanCache.UrlScanner() {
+      @Override
+      public Map<String, Boolean> scan(final URL url, final Set<String> modelTypeNames) {
+        scannedUrls.add(url);
+        Map<String, Boolean> modelTypes = new HashMap<>();
+        if (url.getPath().contains("second") && modelAnnotated.contains("com.company.model.Base")) {
+          // without constraints
+          modelTypes.put("com.company.model.Base", Boolean.FALSE);
+        } else if (url.getPath().contains("first") && modelTypeNames.contains("com.company.model.Base")) {
+          modelTypes.put("com.company.model.Sub", Boolean.TRUE);
+        }
+        return modelTypes;
+      }
+    };
+    List<URL> urls = Arrays.asList(urlOf("first"), urlOf("second"));
+    ScanCache scanCache = ScanCache.open(options, relevantAnnotations);
+    Set<String> classNames = scanCache.findClassNames(urls, hierarchyScanner);
+    store(scanCache);
+    modelAnnotated.clear();
+    Files.write("changed class", second, Charsets.UTF_8);
+    // when
+    Set<String> changedClassNames = ScanCache.open(options, relevantAnnotations).findClassNames(urls,
+      hierarchyScanner);
+    // then
+    assertThat(classNames, contains("com.company.model.Sub"));
+    assertThat(changedClassNames, is(empty()));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldNotProvideRulesIfAnnotationChanged() throws Exception {
+    // given
+    List<URL> urls = Collections.singletonList(urlOf("first"));
+    ScanCache scanCache = ScanCache.open(options, relevantAnnotations);
+    scanCache.findClassNames(urls, scanner);
+    store(scanCache);
+    File annotationClassFile = new File(CustomValidation.class.getResource("CustomValidation.class").toURI());
+    long lastModified = annotationClassFile.lastModified();
+    // when
+    assertThat(annotationClassFile.setLastModified(lastModified + 2000), is(true));
+    try {
+      ScanCache changed = ScanCache.open(options, relevantAnnotations);
+      changed.findClassNames(urls, scanner);
+      // then
+      assertThat(changed.openRules(), is(nullValue()));
+    } finally {
+      annotationClassFile.setLastModified(lastModified);
+    }
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldNotLeaveTemporaryFilesBehind() throws IOException {
+    // given
+    List<URL> urls = Arrays.asList(urlOf("first"), urlOf("second"));
+    ScanCache scanCache = ScanCache.open(options, relevantAnnotations);
+    scanCache.findClassNames(urls, scanner);
+    File directory = new File(options.getScanCacheDirectory());
+    // when
+    store(scanCache);
+    String[] storedFileNames = directory.list();
+    assertThat(scanCache.startStore(Collections.<Class<?>>emptyList()), is(true));
+    scanCache.storeRules("First", new ClassConstraints(), SerializationContext.compact());
+    scanCache.abortStore();
+    // then
+    assertThat(storedFileNames.length, is(1));
+    assertThat(directory.list(), is(storedFileNames));
+  }
+
+  private void store(final ScanCache scanCache) {
+    assertThat(scanCache.startStore(Collections.<Class<?>>emptyList()), is(true));
+    scanCache.storeRules("First", new ClassConstraints(), SerializationContext.compact());
+    scanCache.finishStore();
+  }
+
+  private File createClassFile(final File directory, final String className) throws IOException {
+    File classFile = new File(directory, "com/company/model/" + className + ".class");
+    Files.createParentDirs(classFile);
+    Files.write("class", classFile, Charsets.UTF_8);
+    return classFile;
+  }
+
+  private URL urlOf(final String directoryName) throws IOException {
+    return new File(root, directoryName).toURI().toURL();
+  }
+}
@@ -0,0 +1,63 @@
+package com.github.valdr;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import com.github.valdr.decorator.DecoratorFactories;
+import com.github.valdr.model.i.TestEntityWithSize;
+import com.github.valdr.model.validation.CustomValidation;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests SharedConstraintCache.
+ */
+public class SharedConstraintCacheTest {
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldShareConstraintsAmongCachesWithSameConfiguration() throws Exception {
+    // given
+    SharedConstraintCache first = new SharedConstraintCache(relevantAnnotations(), Collections.<String>emptyList());
+    SharedConstraintCache second = new SharedConstraintCache(relevantAnnotations(), Collections.<String>emptyList());
+    // when
+    ClassConstraints classConstraints = first.get(TestEntityWithSize.class);
+    // then
+    assertThat(second.get(TestEntityWithSize.class), is(sameInstance(classConstraints)));
+    assertThat(classConstraints.size(), is(1));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldExtractConstraintsPerConfiguration() throws Exception {
+    // given
+    SharedConstraintCache all = new SharedConstraintCache(relevantAnnotations(), Collections.<String>emptyList());
+    SharedConstraintCache withExcludedField = new SharedConstraintCache(relevantAnnotations(), Lists.newArrayList(
+      TestEntityWithSize.class.getName() + "#name"));
+    SharedConstraintCache withCustomAnnotation = new SharedConstraintCache(relevantAnnotations(
+      CustomValidation.class), Collections.<String>emptyList());
+    // when
+    ClassConstraints classConstraints = all.get(TestEntityWithSize.class);
+    // then
+    assertThat(withExcludedField.get(TestEntityWithSize.class).size(), is(0));
+    assertThat(withCustomAnnotation.get(TestEntityWithSize.class), is(not(sameInstance(classConstraints))));
+  }
+
+  @SafeVarargs
+  private final RelevantAnnotations relevantAnnotations(final Class<? extends Annotation>... customAnnotations) {
+    List<Class<? extends Annotation>> customAnnotationClasses = Lists.newArrayList(customAnnotations);
+    return new RelevantAnnotations(customAnnotationClasses, new DecoratorFactories(getClass().getClassLoader()));
+  }
+}
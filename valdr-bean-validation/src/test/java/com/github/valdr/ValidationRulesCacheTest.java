@@ -0,0 +1,275 @@
+package com.github.valdr;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import com.google.common.base.Charsets;
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Tests ValidationRulesCache.
+ */
+public class ValidationRulesCacheTest {
+  private ConstraintParser parser;
+  private Options options;
+  private FakeTicker ticker;
+
+  /**
+   * Sets up a parser mock.
+   *
+   * @throws Exception never
+   */
+  @Before
+  public void setUp() throws Exception {
+    parser = mock(ConstraintParser.class);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) throws Throwable {
+        ((OutputStream) invocation.getArguments()[0]).write("{ }".getBytes(Charsets.UTF_8));
+        return null;
+      }
+    }).when(parser).parseWithPackageNames(any(OutputStream.class));
+    options = new Options();
+    ticker = new FakeTicker();
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldParseOnlyOnceForRepeatedReads() throws Exception {
+    // given
+    ValidationRulesCache cache = new ValidationRulesCache(parser, options, ticker);
+    // when
+    ValidationRulesSnapshot first = cache.get();
+    ValidationRulesSnapshot second = cache.get();
+    // then
+    assertThat(second, is(sameInstance(first)));
+    assertThat(new String(first.getJson(), Charsets.UTF_8), is("{ }"));
+    verify(parser, times(1)).parseWithPackageNames(any(OutputStream.class));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldRebuildStaleSnapshotForIntervalPolicy() throws Exception {
+    // given
+    options.setRefreshPolicy(RefreshPolicy.INTERVAL);
+    options.setRefreshInterval(10L);
+    ValidationRulesCache cache = new ValidationRulesCache(parser, options, ticker);
+    ValidationRulesSnapshot first = cache.get();
+    // when
+    ticker.advance(9);
+    ValidationRulesSnapshot notYetStale = cache.get();
+    ticker.advance(1);
+    ValidationRulesSnapshot stale = cache.get();
+    // then
+    assertThat(notYetStale, is(sameInstance(first)));
+    assertThat(stale, is(not(sameInstance(first))));
+    verify(parser, times(2)).parseWithPackageNames(any(OutputStream.class));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldRebuildOnDemand() throws Exception {
+    // given
+    options.setRefreshPolicy(RefreshPolicy.ON_DEMAND);
+    ValidationRulesCache cache = new ValidationRulesCache(parser, options, ticker);
+    ValidationRulesSnapshot first = cache.get();
+    // when
+    ValidationRulesSnapshot refreshed = cache.refresh();
+    // then
+    assertThat(refreshed, is(not(sameInstance(first))));
+    assertThat(cache.get(), is(sameInstance(refreshed)));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldIgnoreRefreshForNeverPolicy() throws Exception {
+    // given
+    ValidationRulesCache cache = new ValidationRulesCache(parser, options, ticker);
+    ValidationRulesSnapshot first = cache.get();
+    // when
+    ValidationRulesSnapshot refreshed = cache.refresh();
+    // then
+    assertThat(refreshed, is(sameInstance(first)));
+    verify(parser, times(1)).parseWithPackageNames(any(OutputStream.class));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldKeepServingPreviousSnapshotIfRefreshFails() throws Exception {
+    // given
+    options.setRefreshPolicy(RefreshPolicy.INTERVAL);
+    options.setRefreshInterval(1L);
+    ValidationRulesCache cache = new ValidationRulesCache(parser, options, ticker);
+    ValidationRulesSnapshot first = cache.get();
+    doThrow(new InstantiationException()).when(parser).parseWithPackageNames(any(OutputStream.class));
+    // when
+    ticker.advance(1);
+    ValidationRulesSnapshot current = cache.get();
+    // then
+    assertThat(current, is(sameInstance(first)));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldCoalesceConcurrentInitialBuilds() throws Exception {
+    // given
+    final CountDownLatch parsing = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) throws Throwable {
+        parsing.countDown();
+        release.await();
+        ((OutputStream) invocation.getArguments()[0]).write("{ }".getBytes(Charsets.UTF_8));
+        return null;
+      }
+    }).when(parser).parseWithPackageNames(any(OutputStream.class));
+    ValidationRulesCache cache = new ValidationRulesCache(parser, options, ticker);
+    // when
+    ListenableFuture<ValidationRulesSnapshot> first = cache.getAsync();
+    parsing.await();
+    ListenableFuture<ValidationRulesSnapshot> second = cache.getAsync();
+    boolean doneBeforeBuild = first.isDone();
+    release.countDown();
+    // then
+    assertThat(doneBeforeBuild, is(false));
+    assertThat(second, is(sameInstance(first)));
+    assertThat(first.get(), is(sameInstance(cache.get())));
+    verify(parser, times(1)).parseWithPackageNames(any(OutputStream.class));
+    cache.shutdown();
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldStartNewBuildAfterFailedBuild() throws Exception {
+    // given
+    ValidationRulesCache cache = new ValidationRulesCache(parser, options, ticker);
+    doThrow(new InstantiationException()).doReturn(null).when(parser).parseWithPackageNames(any(OutputStream.class));
+    // when
+    ListenableFuture<ValidationRulesSnapshot> failed = cache.getAsync();
+    try {
+      failed.get();
+      fail("Build should have failed.");
+    } catch (ExecutionException e) {
+      // then
+      assertThat(e.getCause(), is(instanceOf(IllegalStateException.class)));
+    }
+    assertThat(cache.getAsync().get(), is(notNullValue()));
+    verify(parser, times(2)).parseWithPackageNames(any(OutputStream.class));
+    cache.shutdown();
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws Exception never
+   */
+  @Test
+  public void shouldQueueRefreshBehindStaleRebuild() throws Exception {
+    // given
+    options.setRefreshPolicy(RefreshPolicy.INTERVAL);
+    options.setRefreshInterval(10L);
+    final ValidationRulesCache cache = new ValidationRulesCache(parser, options, ticker);
+    cache.get();
+    final CountDownLatch parsing = new CountDownLatch(2);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger builds = new AtomicInteger();
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) throws Throwable {
+        parsing.countDown();
+        release.await();
+        ((OutputStream) invocation.getArguments()[0]).write(("{\"Build" + builds.incrementAndGet() + "\":{}}")
+          .getBytes(Charsets.UTF_8));
+        return null;
+      }
+    }).when(parser).parseWithPackageNames(any(OutputStream.class));
+    ExecutorService admin = Executors.newSingleThreadExecutor();
+    try {
+      ticker.advance(10);
+      cache.getAsync();
+      // when
+      Future<ValidationRulesSnapshot> refreshed = admin.submit(new Callable<ValidationRulesSnapshot>() {
+        @Override
+        public ValidationRulesSnapshot call() {
+          return cache.refresh();
+        }
+      });
+      boolean overlapping = parsing.await(200, TimeUnit.MILLISECONDS);
+      release.countDown();
+      // then
+      assertThat(overlapping, is(false));
+      assertThat(refreshed.get().getClassNames(), contains("Build2"));
+      assertThat(cache.get(), is(sameInstance(refreshed.get())));
+    } finally {
+      admin.shutdownNow();
+      cache.shutdown();
+    }
+  }
+
+  private static final class FakeTicker extends Ticker {
+    private long nanos;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(final long seconds) {
+      nanos += TimeUnit.SECONDS.toNanos(seconds);
+    }
+  }
+}
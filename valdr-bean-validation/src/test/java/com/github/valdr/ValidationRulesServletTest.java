@@ -6,20 +6,41 @@ import org.junit.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.mock;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.contains;
+import static org.mockito.Mockito.doAnswer;
 
 /**
  * Tests ValidationRulesServlet.
@@ -112,6 +133,374 @@ public class ValidationRulesServletTest {
     assertThat(response.getStatus(), is(200));
   }
 
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldServeSameRulesForRepeatedRequests() throws IOException, ServletException {
+    // given
+    givenValidConfiguration();
+    servlet.init(servletConfig);
+    servlet.doGet(request, response);
+    MockHttpServletResponse secondResponse = new MockHttpServletResponse();
+
+    // when
+    servlet.doGet(request, secondResponse);
+
+    // then
+    assertThat(secondResponse.getContentAsString(), is(response.getContentAsString()));
+    assertThat(secondResponse.getContentLength(), is(response.getContentAsByteArray().length));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendValidatorHeaders() throws IOException, ServletException {
+    // given
+    givenValidConfiguration();
+    servlet.init(servletConfig);
+
+    // when
+    servlet.doGet(request, response);
+
+    // then
+    assertThat(response.getHeader("ETag"), startsWith("\""));
+    assertThat(response.getHeader("Cache-Control"), is("no-cache"));
+    assertThat(response.getHeader("Last-Modified"), is(notNullValue()));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendHttp304IfEtagMatches() throws IOException, ServletException {
+    // given
+    givenValidConfiguration();
+    servlet.init(servletConfig);
+    servlet.doGet(request, response);
+    MockHttpServletRequest conditionalRequest = new MockHttpServletRequest();
+    conditionalRequest.addHeader("If-None-Match", "\"other\", " + response.getHeader("ETag"));
+    MockHttpServletResponse conditionalResponse = new MockHttpServletResponse();
+
+    // when
+    servlet.doGet(conditionalRequest, conditionalResponse);
+
+    // then
+    assertThat(conditionalResponse.getStatus(), is(304));
+    assertThat(conditionalResponse.getContentAsByteArray().length, is(0));
+    assertThat(conditionalResponse.getHeader("ETag"), is(response.getHeader("ETag")));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendHttp200IfEtagDoesNotMatch() throws IOException, ServletException {
+    // given
+    givenValidConfiguration();
+    servlet.init(servletConfig);
+    request.addHeader("If-None-Match", "\"other\"");
+
+    // when
+    servlet.doGet(request, response);
+
+    // then
+    assertThat(response.getStatus(), is(200));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendHttp304IfNotModifiedSince() throws IOException, ServletException {
+    // given
+    givenValidConfiguration();
+    servlet.init(servletConfig);
+    request.addHeader("If-Modified-Since", System.currentTimeMillis() + 1000);
+
+    // when
+    servlet.doGet(request, response);
+
+    // then
+    assertThat(response.getStatus(), is(304));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendGzipIfAccepted() throws IOException, ServletException {
+    // given
+    givenValidConfiguration();
+    servlet.init(servletConfig);
+    servlet.doGet(request, response);
+    MockHttpServletRequest gzipRequest = new MockHttpServletRequest();
+    gzipRequest.addHeader("Accept-Encoding", "gzip, deflate");
+    MockHttpServletResponse gzipResponse = new MockHttpServletResponse();
+
+    // when
+    servlet.doGet(gzipRequest, gzipResponse);
+
+    // then
+    assertThat(gzipResponse.getHeader("Content-Encoding"), is("gzip"));
+    assertThat(gzipResponse.getHeader("Vary"), is("Accept-Encoding"));
+    assertThat(gzipResponse.getHeader("ETag"), is(not(response.getHeader("ETag"))));
+    assertThat(IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(gzipResponse
+      .getContentAsByteArray()))), is(response.getContentAsByteArray()));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldKeepVaryValuesSetByOthers() throws IOException, ServletException {
+    // given
+    givenValidConfiguration();
+    servlet.init(servletConfig);
+    response.addHeader("Vary", "Origin");
+
+    // when
+    servlet.doGet(request, response);
+
+    // then
+    assertThat(response.getHeaders("Vary"), hasItem("Origin"));
+    assertThat(response.getHeaders("Vary"), hasItem("Accept-Encoding"));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendSmileIfAccepted() throws IOException, ServletException {
+    // given
+    givenValidConfiguration();
+    servlet.init(servletConfig);
+    servlet.doGet(request, response);
+    MockHttpServletRequest smileRequest = new MockHttpServletRequest();
+    smileRequest.addHeader("Accept", "application/x-jackson-smile, application/json;q=0.5");
+    MockHttpServletResponse smileResponse = new MockHttpServletResponse();
+
+    // when
+    servlet.doGet(smileRequest, smileResponse);
+
+    // then
+    assertThat(smileResponse.getContentType(), is("application/x-jackson-smile"));
+    assertThat(smileResponse.getHeaders("Vary"), hasItem("Accept"));
+    assertThat(smileResponse.getHeader("ETag"), is(not(response.getHeader("ETag"))));
+    assertThat(new ObjectMapper(new SmileFactory()).readTree(smileResponse.getContentAsByteArray()), is(
+      new ObjectMapper().readTree(response.getContentAsByteArray())));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendSubDocumentForClassInPath() throws IOException, ServletException {
+    // given
+    givenTwoClassesConfiguration();
+    servlet.init(servletConfig);
+    request.setPathInfo("/TestEntityWithSize");
+
+    // when
+    servlet.doGet(request, response);
+
+    // then
+    assertThat(response.getStatus(), is(200));
+    assertThat(response.getContentAsString(), containsString("\"TestEntityWithSize\""));
+    assertThat(response.getContentAsString(), not(containsString("\"TestModelWithASingleAnnotatedMember\"")));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendHttp404ForUnknownClassInPath() throws IOException, ServletException {
+    // given
+    givenTwoClassesConfiguration();
+    servlet.init(servletConfig);
+    request.setPathInfo("/Unknown");
+
+    // when
+    servlet.doGet(request, response);
+
+    // then
+    assertThat(response.getStatus(), is(404));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendSubDocumentForPackage() throws IOException, ServletException {
+    // given
+    givenTwoClassesConfiguration();
+    servlet.init(servletConfig);
+    request.setParameter("package", "com.github.valdr.model.i");
+
+    // when
+    servlet.doGet(request, response);
+
+    // then
+    assertThat(response.getContentAsString(), containsString("\"TestEntityWithSize\""));
+    assertThat(response.getContentAsString(), not(containsString("\"TestModelWithASingleAnnotatedMember\"")));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendHttp400ForPackageOfPrecompiledRulesWithSimpleNames() throws IOException, ServletException {
+    // given
+    File directory = Files.createTempDir();
+    File rules = new File(directory, ConstraintParser.PRECOMPILED_RULES_RESOURCE);
+    Files.createParentDirs(rules);
+    Files.write("{\"TestEntityWithSize\":{}}", rules, Charsets.UTF_8);
+    givenThisConfiguration("{\n" +
+      "  \"modelPackages\": [\"com.github.valdr.model.i\"],\n" +
+      "  \"usePrecompiledRules\": true\n" +
+      "}");
+    request.setParameter("package", "com.github.valdr.model.i");
+    Thread thread = Thread.currentThread();
+    ClassLoader contextClassLoader = thread.getContextClassLoader();
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] {directory.toURI().toURL()},
+      contextClassLoader)) {
+      thread.setContextClassLoader(classLoader);
+      servlet.init(servletConfig);
+
+      // when
+      servlet.doGet(request, response);
+    } finally {
+      thread.setContextClassLoader(contextClassLoader);
+    }
+
+    // then
+    assertThat(response.getStatus(), is(400));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendHttp304IfSubDocumentEtagMatches() throws IOException, ServletException {
+    // given
+    givenTwoClassesConfiguration();
+    servlet.init(servletConfig);
+    request.setParameter("classes", "TestEntityWithSize,Unknown");
+    servlet.doGet(request, response);
+    MockHttpServletRequest conditionalRequest = new MockHttpServletRequest();
+    conditionalRequest.setParameter("classes", "TestEntityWithSize");
+    conditionalRequest.addHeader("If-None-Match", response.getHeader("ETag"));
+    MockHttpServletResponse conditionalResponse = new MockHttpServletResponse();
+
+    // when
+    servlet.doGet(conditionalRequest, conditionalResponse);
+
+    // then
+    assertThat(conditionalResponse.getStatus(), is(304));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldParkRequestUntilRulesAreBuilt() throws Exception {
+    // given
+    final CountDownLatch release = new CountDownLatch(1);
+    ConstraintParser parser = mock(ConstraintParser.class);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) throws Throwable {
+        release.await();
+        ((OutputStream) invocation.getArguments()[0]).write("{ }".getBytes(Charsets.UTF_8));
+        return null;
+      }
+    }).when(parser).parseWithPackageNames(any(OutputStream.class));
+    ReflectionTestUtils.setField(servlet, "correctlyConfigured", true);
+    ReflectionTestUtils.setField(servlet, "rulesCache", new ValidationRulesCache(parser, new Options()));
+    HttpServletRequest asyncRequest = mock(HttpServletRequest.class);
+    AsyncContext asyncContext = mock(AsyncContext.class);
+    final CountDownLatch completed = new CountDownLatch(1);
+    given(asyncRequest.isAsyncSupported()).willReturn(true);
+    given(asyncRequest.startAsync()).willReturn(asyncContext);
+    given(asyncContext.getRequest()).willReturn(asyncRequest);
+    given(asyncContext.getResponse()).willReturn(response);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) throws Throwable {
+        ((Runnable) invocation.getArguments()[0]).run();
+        return null;
+      }
+    }).when(asyncContext).start(any(Runnable.class));
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) throws Throwable {
+        completed.countDown();
+        return null;
+      }
+    }).when(asyncContext).complete();
+
+    // when
+    servlet.doGet(asyncRequest, response);
+    boolean committedBeforeBuild = response.isCommitted();
+    release.countDown();
+
+    // then
+    assertThat(completed.await(5, TimeUnit.SECONDS), is(true));
+    assertThat(committedBeforeBuild, is(false));
+    assertThat(response.getStatus(), is(200));
+    assertThat(response.getContentAsString(), is("{ }"));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldSendHttp503UntilReadyIfConfigured() throws Exception {
+    // given
+    final CountDownLatch release = new CountDownLatch(1);
+    ConstraintParser parser = mock(ConstraintParser.class);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) throws Throwable {
+        release.await();
+        ((OutputStream) invocation.getArguments()[0]).write("{ }".getBytes(Charsets.UTF_8));
+        return null;
+      }
+    }).when(parser).parseWithPackageNames(any(OutputStream.class));
+    ValidationRulesCache rulesCache = new ValidationRulesCache(parser, new Options());
+    ReflectionTestUtils.setField(servlet, "correctlyConfigured", true);
+    ReflectionTestUtils.setField(servlet, "rulesCache", rulesCache);
+    ReflectionTestUtils.setField(servlet, "retryAfter", 5L);
+
+    // when
+    servlet.doGet(request, response);
+    boolean readyBeforeBuild = servlet.isReady();
+    release.countDown();
+    rulesCache.getAsync().get(5, TimeUnit.SECONDS);
+    MockHttpServletResponse readyResponse = new MockHttpServletResponse();
+    servlet.doGet(new MockHttpServletRequest(), readyResponse);
+
+    // then
+    assertThat(response.getStatus(), is(503));
+    assertThat(response.getHeader("Retry-After"), is("5"));
+    assertThat(readyBeforeBuild, is(false));
+    assertThat(servlet.isReady(), is(true));
+    assertThat(readyResponse.getStatus(), is(200));
+  }
+
+  private void givenTwoClassesConfiguration() throws IOException {
+    givenThisConfiguration("{\n" +
+      "  \"modelPackages\": [\"com.github.valdr.model.a\", \"com.github.valdr.model.i\"]\n" +
+      "}");
+  }
+
+  private void givenValidConfiguration() throws IOException {
+    givenThisConfiguration("{\n" +
+      "  \"modelPackages\": [\"com.github.valdr.model.b\"]\n" +
+      "}");
+  }
+
   private void givenThisConfiguration(String jsonString) throws IOException {
     String configFile = createTempFile(jsonString);
     given(servletConfig.getInitParameter("configFile")).willReturn(configFile);
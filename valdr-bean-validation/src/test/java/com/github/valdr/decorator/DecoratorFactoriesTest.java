@@ -0,0 +1,53 @@
+package com.github.valdr.decorator;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import javax.validation.constraints.NotNull;
+import org.junit.Test;
+import com.github.valdr.ConstraintAttributes;
+
+/**
+ * Tests {@link DecoratorFactories}.
+ */
+public class DecoratorFactoriesTest {
+
+  /**
+   * Annotation decorated by {@link DecoratedFactory}.
+   */
+  @Retention(RetentionPolicy.RUNTIME)
+  public @interface Decorated {
+  }
+
+  /**
+   * Factory registered in {@code META-INF/services} of the test resources.
+   */
+  public static class DecoratedFactory implements DecoratorFactory {
+
+    @Override
+    public String getAnnotationClassName() {
+      return Decorated.class.getName();
+    }
+
+    @Override
+    public AbstractConstraintAttributesDecorator createDecorator(final ConstraintAttributes decoratee) {
+      return new NullDecorator(decoratee);
+    }
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldLoadRegisteredFactories() {
+    // when
+    DecoratorFactories decoratorFactories = new DecoratorFactories(getClass().getClassLoader());
+
+    // then
+    assertThat(decoratorFactories.get(Decorated.class.getName()), instanceOf(DecoratedFactory.class));
+    assertThat(decoratorFactories.get(NotNull.class.getName()), is(nullValue()));
+  }
+}
@@ -0,0 +1,141 @@
+package com.github.valdr.discovery;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Set;
+import org.junit.Test;
+import com.github.valdr.Options;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+/**
+ * Tests {@link ModelClassDiscoveries}.
+ */
+public class ModelClassDiscoveriesTest {
+
+  /**
+   * Discovers classes whose name ends with "Dto", registered as service provider by a test.
+   */
+  public static class DtoDiscovery implements ModelClassDiscovery {
+
+    @Override
+    public boolean isModelClass(final TypeMetadata type) {
+      return type.getName().endsWith("Dto");
+    }
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldDiscoverEntitiesByDefault() {
+    // when
+    ModelClassDiscoveries discoveries = new ModelClassDiscoveries(new Options(), Collections.<String>emptySet(),
+      getClass().getClassLoader());
+    // then
+    assertThat(discoveries.isAnnotationBased(), is(true));
+    assertThat(discoveries.isEntityBased(), is(true));
+    assertThat(discoveries.getModelAnnotationNames(), contains("javax.persistence.Entity"));
+    assertThat(discoveries.isModelClass(type("com.company.Person", "javax.persistence.Entity", null)), is(true));
+    assertThat(discoveries.isModelClass(type("com.company.Employee", null, type("com.company.Person",
+      "javax.persistence.Entity", null))), is(true));
+    assertThat(discoveries.isModelClass(type("com.company.PersonDto", null, null)), is(false));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldCombineConfiguredStrategies() {
+    // given
+    Options options = new Options();
+    options.setModelAnnotations(Lists.<String>newArrayList());
+    options.setModelClasses(Lists.newArrayList("com.company.PersonDto"));
+    options.setDiscoverConstrainedClasses(true);
+    // when
+    ModelClassDiscoveries discoveries = new ModelClassDiscoveries(options, Collections.singleton(
+      "javax.validation.constraints.NotNull"), getClass().getClassLoader());
+    // then
+    assertThat(discoveries.isAnnotationBased(), is(false));
+    assertThat(discoveries.isModelClass(type("com.company.PersonDto", null, null)), is(true));
+    assertThat(discoveries.isModelClass(type("com.company.Person", "javax.persistence.Entity", null)), is(false));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldNotBeEntityBasedWithOtherModelAnnotations() {
+    // given
+    Options options = new Options();
+    options.setModelAnnotations(Lists.newArrayList("javax.persistence.Entity", "javax.persistence.Embeddable"));
+    // when
+    ModelClassDiscoveries discoveries = new ModelClassDiscoveries(options, Collections.<String>emptySet(),
+      getClass().getClassLoader());
+    // then
+    assertThat(discoveries.isAnnotationBased(), is(true));
+    assertThat(discoveries.isEntityBased(), is(false));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldLoadRegisteredDiscoveries() throws IOException {
+    // given
+    File directory = Files.createTempDir();
+    File services = new File(directory, "META-INF/services/" + ModelClassDiscovery.class.getName());
+    Files.createParentDirs(services);
+    Files.write(DtoDiscovery.class.getName(), services, Charsets.UTF_8);
+    // when
+    ModelClassDiscoveries discoveries;
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] {directory.toURI().toURL()}, getClass()
+      .getClassLoader())) {
+      discoveries = new ModelClassDiscoveries(new Options(), Collections.<String>emptySet(), classLoader);
+    }
+    // then
+    assertThat(discoveries.isAnnotationBased(), is(false));
+    assertThat(discoveries.isEntityBased(), is(false));
+    assertThat(discoveries.isModelClass(type("com.company.PersonDto", null, null)), is(true));
+  }
+
+  private static TypeMetadata type(final String name, final String annotationName, final TypeMetadata superclass) {
+    final Set<String> annotationNames = annotationName == null ? Collections.<String>emptySet() : Collections
+      .singleton(annotationName);
+    return new TypeMetadata() {
+      @Override
+      public String getName() {
+        return name;
+      }
+
+      @Override
+      public Set<String> getAnnotationNames() {
+        return annotationNames;
+      }
+
+      @Override
+      public Set<String> getFieldAnnotationNames() {
+        return Collections.emptySet();
+      }
+
+      @Override
+      public TypeMetadata getSuperclass() {
+        return superclass;
+      }
+
+      @Override
+      public Set<String> getSupertypeNames() {
+        return superclass == null ? Collections.<String>emptySet() : Collections.singleton(superclass.getName());
+      }
+    };
+  }
+}
@@ -0,0 +1,14 @@
+package com.github.valdr.model.i;
+
+import java.math.BigDecimal;
+import javax.persistence.Entity;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.Min;
+
+@Entity
+public class TestEntityWithDigits {
+  @Digits(integer = 5, fraction = 2)
+  private BigDecimal amount;
+  @Min(1)
+  private int quantity;
+}
@@ -0,0 +1,10 @@
+package com.github.valdr.model.i;
+
+import javax.persistence.Entity;
+import javax.validation.constraints.Pattern;
+
+@Entity
+public class TestEntityWithPattern {
+  @Pattern(regexp = "[a-z]+")
+  private String code;
+}
@@ -0,0 +1,12 @@
+package com.github.valdr.model.i;
+
+import javax.persistence.Entity;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+@Entity
+public class TestEntityWithSize {
+  @NotNull
+  @Size(min = 2, max = 20)
+  private String name;
+}
@@ -0,0 +1,89 @@
+package com.github.valdr.serializer;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.valdr.ClassConstraints;
+import com.github.valdr.FieldConstraints;
+import com.github.valdr.Options;
+import com.github.valdr.OutputStyle;
+import com.google.common.base.Charsets;
+
+/**
+ * Tests {@link SerializationContext}.
+ */
+public class SerializationContextTest {
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldWriteCompactOutput() throws IOException {
+    // when
+    String json = SerializationContext.compact().toJson(createClassConstraints());
+    // then
+    assertThat(json, is("{\"name\":{}}"));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldWriteSameOutputThroughGenerator() throws IOException {
+    // given
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    // when
+    try (JsonGenerator generator = SerializationContext.pretty().createGenerator(outputStream)) {
+      SerializationContext.pretty().writeValue(generator, createClassConstraints());
+    }
+    // then
+    assertThat(new String(outputStream.toByteArray(), Charsets.UTF_8), is(SerializationContext.pretty().toJson(
+      createClassConstraints())));
+  }
+
+  /**
+   * See method name.
+   */
+  @Test
+  public void shouldShareObjectMapper() {
+    // then
+    assertThat(SerializationContext.getObjectMapper(), is(sameInstance(SerializationContext.getObjectMapper())));
+    assertThat(SerializationContext.pretty().isPrettyPrint(), is(true));
+    assertThat(SerializationContext.compact().isPrettyPrint(), is(false));
+  }
+
+  /**
+   * See method name.
+   *
+   * @throws IOException never
+   */
+  @Test
+  public void shouldSortKeysIfConfigured() throws IOException {
+    // given
+    Options options = new Options();
+    options.setOutputStyle(OutputStyle.COMPACT);
+    options.setSortKeys(true);
+    ClassConstraints classConstraints = new ClassConstraints();
+    for (String name : new String[] {"c", "a", "d", "b"}) {
+      classConstraints.put(name, new FieldConstraints());
+    }
+    // when
+    String json = SerializationContext.forOptions(options).toJson(classConstraints);
+    // then
+    assertThat(json, is("{\"a\":{},\"b\":{},\"c\":{},\"d\":{}}"));
+  }
+
+  private ClassConstraints createClassConstraints() {
+    ClassConstraints classConstraints = new ClassConstraints();
+    classConstraints.put("name", new FieldConstraints());
+    return classConstraints;
+  }
+}
@@ -0,0 +1,94 @@
+package com.github.valdr.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Model classes generated by the {@link ModelGenerator}. While the model is {@link #activate() active} its class
+ * loader is the context class loader of the current thread such that the classpath scanner and the parser find the
+ * generated classes.
+ */
+public class GeneratedModel implements Closeable {
+  private final File directory;
+  private final String packageName;
+  private final List<String> entityClassNames;
+  private final int fieldsPerClass;
+  private final URLClassLoader classLoader;
+  private ClassLoader originalContextClassLoader;
+
+  GeneratedModel(final File directory, final String packageName, final List<String> entityClassNames,
+                 final int fieldsPerClass) throws IOException {
+    this.directory = directory;
+    this.packageName = packageName;
+    this.entityClassNames = entityClassNames;
+    this.fieldsPerClass = fieldsPerClass;
+    this.classLoader = new URLClassLoader(new URL[] {directory.toURI().toURL()},
+      GeneratedModel.class.getClassLoader());
+  }
+
+  /**
+   * Makes the class loader of the model the context class loader of the current thread.
+   *
+   * @return this
+   */
+  public GeneratedModel activate() {
+    originalContextClassLoader = Thread.currentThread().getContextClassLoader();
+    Thread.currentThread().setContextClassLoader(classLoader);
+    return this;
+  }
+
+  /**
+   * Restores the context class loader (if the model is active), closes the class loader and deletes the class files.
+   *
+   * @throws IOException if the class files cannot be deleted
+   */
+  @Override
+  public void close() throws IOException {
+    if (originalContextClassLoader != null) {
+      Thread.currentThread().setContextClassLoader(originalContextClassLoader);
+      originalContextClassLoader = null;
+    }
+    classLoader.close();
+    FileUtils.deleteDirectory(directory);
+  }
+
+  /**
+   * @return package which contains all generated classes (in sub packages)
+   */
+  public String getPackageName() {
+    return packageName;
+  }
+
+  /**
+   * @return fully qualified names of the generated entities
+   */
+  public List<String> getEntityClassNames() {
+    return entityClassNames;
+  }
+
+  /**
+   * @return number of fields declared by each generated class
+   */
+  public int getFieldsPerClass() {
+    return fieldsPerClass;
+  }
+
+  /**
+   * @return class loader which loads the generated classes
+   */
+  public ClassLoader getClassLoader() {
+    return classLoader;
+  }
+
+  /**
+   * @return directory containing the class files
+   */
+  public File getDirectory() {
+    return directory;
+  }
+}
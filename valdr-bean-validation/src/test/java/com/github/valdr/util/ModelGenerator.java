@@ -0,0 +1,241 @@
+package com.github.valdr.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.Modifier;
+import javassist.NotFoundException;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.annotation.Annotation;
+import javassist.bytecode.annotation.IntegerMemberValue;
+import javassist.bytecode.annotation.LongMemberValue;
+import javassist.bytecode.annotation.StringMemberValue;
+import com.github.valdr.model.validation.CustomValidation;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+/**
+ * Generates synthetic model classes (byte code) for scale tests and benchmarks. The model consists of
+ * {@code classCount} entities with {@code fieldsPerClass} fields each. A field carries constraints with a probability
+ * of {@code constraintDensity}; constrained fields get one of the built-in constraints or the custom constraint
+ * {@link CustomValidation} (see {@link #getCustomAnnotationClassNames()}). All entities extend a chain of
+ * {@code superclassDepth} non-entity super classes which have constrained fields of their own, like
+ * {@code model/d/SuperClassWithValidatedMember}.
+ * <p>
+ * The generation is deterministic for a given seed. The classes are written to a temporary directory and loaded by
+ * the class loader of the returned {@link GeneratedModel}.
+ * </p>
+ */
+public class ModelGenerator {
+  private static final String ENTITY = "javax.persistence.Entity";
+  private static final String CONSTRAINTS = "javax.validation.constraints.";
+  private static final int CLASSES_PER_PACKAGE = 1000;
+
+  private final String packageName;
+  private int classCount = 10;
+  private int fieldsPerClass = 10;
+  private double constraintDensity = 0.5;
+  private int superclassDepth = 2;
+  private long seed = 42;
+
+  /**
+   * Constructor.
+   *
+   * @param packageName base package of the generated classes, large models are split into sub packages
+   */
+  public ModelGenerator(final String packageName) {
+    this.packageName = packageName;
+  }
+
+  /**
+   * @return names of the custom constraints the generated classes use
+   */
+  public static List<String> getCustomAnnotationClassNames() {
+    return Lists.newArrayList(CustomValidation.class.getName());
+  }
+
+  /**
+   * @param classCount number of entities to generate
+   * @return this
+   */
+  public ModelGenerator withClassCount(final int classCount) {
+    this.classCount = classCount;
+    return this;
+  }
+
+  /**
+   * @param fieldsPerClass number of fields of each generated class
+   * @return this
+   */
+  public ModelGenerator withFieldsPerClass(final int fieldsPerClass) {
+    this.fieldsPerClass = fieldsPerClass;
+    return this;
+  }
+
+  /**
+   * @param constraintDensity probability (0 to 1) of a field to carry constraints
+   * @return this
+   */
+  public ModelGenerator withConstraintDensity(final double constraintDensity) {
+    this.constraintDensity = constraintDensity;
+    return this;
+  }
+
+  /**
+   * @param superclassDepth number of super classes each entity has (besides {@code Object})
+   * @return this
+   */
+  public ModelGenerator withSuperclassDepth(final int superclassDepth) {
+    this.superclassDepth = superclassDepth;
+    return this;
+  }
+
+  /**
+   * @param seed seed of the random generator which decides about the constraints
+   * @return this
+   */
+  public ModelGenerator withSeed(final long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  /**
+   * Generates the model.
+   *
+   * @return generated model, should be closed to remove the class files
+   * @throws IOException if the class files cannot be written
+   */
+  public GeneratedModel generate() throws IOException {
+    File directory = Files.createTempDir();
+    ClassPool pool = new ClassPool(true);
+    Random random = new Random(seed);
+    List<String> entityClassNames = Lists.newArrayListWithCapacity(classCount);
+    try {
+      CtClass superclass = pool.get(Object.class.getName());
+      for (int level = 0; level < superclassDepth; level++) {
+        superclass = createClass(pool, random, packageName + ".base.SuperClass" + level, superclass,
+          "superClass" + level + "Field", false);
+        superclass.writeFile(directory.getAbsolutePath());
+      }
+      for (int i = 0; i < classCount; i++) {
+        String className = packageName + ".p" + i / CLASSES_PER_PACKAGE + ".Entity" + i;
+        CtClass entity = createClass(pool, random, className, superclass, "field", true);
+        entity.writeFile(directory.getAbsolutePath());
+        // release the class such that large models don't exhaust the pool
+        entity.detach();
+        entityClassNames.add(className);
+      }
+    } catch (NotFoundException | CannotCompileException e) {
+      throw new IllegalStateException("Cannot generate model classes.", e);
+    }
+    return new GeneratedModel(directory, packageName, entityClassNames, fieldsPerClass);
+  }
+
+  private CtClass createClass(final ClassPool pool, final Random random, final String className, final CtClass
+    superclass, final String fieldNamePrefix, final boolean entity) throws NotFoundException, CannotCompileException {
+    CtClass clazz = pool.makeClass(className, superclass);
+    ClassFile classFile = clazz.getClassFile();
+    ConstPool constPool = classFile.getConstPool();
+    if (entity) {
+      AnnotationsAttribute annotations = new AnnotationsAttribute(constPool, AnnotationsAttribute.visibleTag);
+      annotations.addAnnotation(new Annotation(ENTITY, constPool));
+      classFile.addAttribute(annotations);
+    }
+    for (int i = 0; i < fieldsPerClass; i++) {
+      String fieldName = fieldNamePrefix + i;
+      if (random.nextDouble() < constraintDensity) {
+        clazz.addField(createConstrainedField(pool, random, clazz, fieldName));
+      } else {
+        clazz.addField(createField(pool, clazz, String.class, fieldName));
+      }
+    }
+    return clazz;
+  }
+
+  private CtField createField(final ClassPool pool, final CtClass clazz, final Class<?> type, final String name)
+    throws NotFoundException, CannotCompileException {
+    CtField field = new CtField(pool.get(type.getName()), name, clazz);
+    field.setModifiers(Modifier.PRIVATE);
+    return field;
+  }
+
+  private CtField createConstrainedField(final ClassPool pool, final Random random, final CtClass clazz, final String
+    name) throws NotFoundException, CannotCompileException {
+    ConstPool constPool = clazz.getClassFile().getConstPool();
+    AnnotationsAttribute annotations = new AnnotationsAttribute(constPool, AnnotationsAttribute.visibleTag);
+    Class<?> type;
+    switch (random.nextInt(10)) {
+      case 0:
+        type = String.class;
+        annotations.addAnnotation(new Annotation(CONSTRAINTS + "NotNull", constPool));
+        break;
+      case 1:
+        type = String.class;
+        annotations.addAnnotation(new Annotation(CONSTRAINTS + "NotNull", constPool));
+        annotations.addAnnotation(size(constPool, random));
+        break;
+      case 2:
+        type = String.class;
+        annotations.addAnnotation(size(constPool, random));
+        break;
+      case 3:
+        type = String.class;
+        Annotation pattern = new Annotation(CONSTRAINTS + "Pattern", constPool);
+        pattern.addMemberValue("regexp", new StringMemberValue("[a-z]{1," + (1 + random.nextInt(20)) + "}",
+          constPool));
+        annotations.addAnnotation(pattern);
+        break;
+      case 4:
+        type = String.class;
+        annotations.addAnnotation(new Annotation("org.hibernate.validator.constraints.Email", constPool));
+        break;
+      case 5:
+        type = java.math.BigDecimal.class;
+        Annotation digits = new Annotation(CONSTRAINTS + "Digits", constPool);
+        digits.addMemberValue("integer", new IntegerMemberValue(constPool, 1 + random.nextInt(10)));
+        digits.addMemberValue("fraction", new IntegerMemberValue(constPool, random.nextInt(4)));
+        annotations.addAnnotation(digits);
+        break;
+      case 6:
+        type = Long.class;
+        Annotation min = new Annotation(CONSTRAINTS + "Min", constPool);
+        min.addMemberValue("value", new LongMemberValue((long) random.nextInt(10), constPool));
+        Annotation max = new Annotation(CONSTRAINTS + "Max", constPool);
+        max.addMemberValue("value", new LongMemberValue(10L + random.nextInt(1000), constPool));
+        annotations.addAnnotation(min);
+        annotations.addAnnotation(max);
+        break;
+      case 7:
+        type = java.util.Date.class;
+        annotations.addAnnotation(new Annotation(CONSTRAINTS + (random.nextBoolean() ? "Past" : "Future"),
+          constPool));
+        break;
+      case 8:
+        type = java.util.List.class;
+        annotations.addAnnotation(size(constPool, random));
+        break;
+      default:
+        type = String.class;
+        annotations.addAnnotation(new Annotation(CustomValidation.class.getName(), constPool));
+        break;
+    }
+    CtField field = createField(pool, clazz, type, name);
+    field.getFieldInfo().addAttribute(annotations);
+    return field;
+  }
+
+  private Annotation size(final ConstPool constPool, final Random random) {
+    Annotation size = new Annotation(CONSTRAINTS + "Size", constPool);
+    int min = random.nextInt(5);
+    size.addMemberValue("min", new IntegerMemberValue(constPool, min));
+    size.addMemberValue("max", new IntegerMemberValue(constPool, min + 1 + random.nextInt(100)));
+    return size;
+  }
+}